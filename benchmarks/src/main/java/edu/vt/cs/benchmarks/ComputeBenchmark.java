@@ -0,0 +1,52 @@
+package edu.vt.cs.benchmarks;
+
+import edu.vt.cs.evaluation.Metrics;
+import edu.vt.cs.models.ImmutableSpectrum;
+import edu.vt.cs.models.Spectrum;
+import edu.vt.cs.ranking.Ranker;
+import edu.vt.cs.ranking.RankingAlgorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metrics of a ranked spectrum: from the location ranks found by entity id while ranking, and from the ranked list
+ * alone, as for a spectrum read back from an intermediate file
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class ComputeBenchmark {
+    private Spectrum ranked;
+
+    private Spectrum rankedListOnly;
+
+    @Setup(Level.Trial)
+    public void setUp(CoverageData data) {
+        ranked = new Ranker().rank(RankingAlgorithm.OCHIAI, data.spectrum);
+        rankedListOnly = ImmutableSpectrum.copyOf(ranked).withLocationRanks((Iterable<Integer>) null);
+    }
+
+    @Benchmark
+    public Metrics computeFromLocationRanks() {
+        return ranked.compute();
+    }
+
+    @Benchmark
+    public Metrics computeFromRankedList() {
+        return rankedListOnly.compute();
+    }
+}
@@ -0,0 +1,66 @@
+package edu.vt.cs.benchmarks;
+
+import edu.vt.cs.evaluation.TriggeringMode;
+import edu.vt.cs.models.Bug;
+import edu.vt.cs.models.ColumnarSpectrum;
+import edu.vt.cs.models.Project;
+import edu.vt.cs.models.Spectrum;
+import edu.vt.cs.utils.CoverageParser;
+import edu.vt.cs.utils.SyntheticSpectrumGenerator;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+
+/**
+ * Synthetic coverage data of one bug, see {@link SyntheticSpectrumGenerator}, sized by the parameters, e.g. -p tests=20000 -p entities=100000.
+ * Thread scoped, as a {@link ColumnarSpectrum} must only be ranked by one thread at a time.
+ */
+@State(Scope.Thread)
+public class CoverageData {
+    @Param({"500", "5000"})
+    public int tests;
+
+    @Param({"2000", "20000"})
+    public int entities;
+
+    @Param({"0.05"})
+    public double density;
+
+    @Param({"0.02"})
+    public double failingRatio;
+
+    @Param({"3"})
+    public int faults;
+
+    Path gzoltarsDir;
+
+    Bug bug;
+
+    ColumnarSpectrum columnarSpectrum;
+
+    Spectrum spectrum;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        gzoltarsDir = Files.createTempDirectory("sbfl-benchmark");
+        bug = new SyntheticSpectrumGenerator(tests, entities, density, failingRatio, faults, 42)
+                .generate(Project.Lang, 1, gzoltarsDir);
+        columnarSpectrum = CoverageParser.readColumnar(bug, EnumSet.of(TriggeringMode.COMPLETE), gzoltarsDir.toString())
+                .get(TriggeringMode.COMPLETE);
+        spectrum = columnarSpectrum.toSpectrum();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(gzoltarsDir.toFile());
+    }
+}
@@ -0,0 +1,39 @@
+package edu.vt.cs.benchmarks;
+
+import edu.vt.cs.evaluation.TriggeringMode;
+import edu.vt.cs.models.ColumnarSpectrum;
+import edu.vt.cs.models.Spectrum;
+import edu.vt.cs.utils.CoverageParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing a bug's matrix and spectra files, in one mode and in all modes at once
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class CoverageParserBenchmark {
+
+    @Benchmark
+    public Spectrum parse(CoverageData data) {
+        return CoverageParser.parse(data.bug, TriggeringMode.COMPLETE, data.gzoltarsDir.toString());
+    }
+
+    @Benchmark
+    public Map<TriggeringMode, ColumnarSpectrum> parseAllModes(CoverageData data) throws IOException {
+        return CoverageParser.readColumnar(data.bug, EnumSet.allOf(TriggeringMode.class), data.gzoltarsDir.toString());
+    }
+}
@@ -0,0 +1,83 @@
+package edu.vt.cs.benchmarks;
+
+import edu.vt.cs.evaluation.Metrics;
+import edu.vt.cs.models.Spectrum;
+import edu.vt.cs.ranking.Ranker;
+import edu.vt.cs.ranking.RankingAlgorithm;
+import edu.vt.cs.ranking.SpVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scoring, ranking and evaluating a spectrum by each ranking algorithm
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class RankerBenchmark {
+    @Param
+    public RankingAlgorithm rankingAlgorithm;
+
+    private final Ranker ranker = new Ranker();
+
+    @Benchmark
+    public double[] toScores(CoverageData data) {
+        var spectrum = data.columnarSpectrum;
+        SpVector.toScores(rankingAlgorithm, spectrum.getFailedTests(), spectrum.getPassedTests(),
+                spectrum.getTotalOfFailedTests(), spectrum.getTotalOfPassedTests(), spectrum.getScores(),
+                spectrum.size());
+        return spectrum.getScores();
+    }
+
+    @Benchmark
+    public int[] rankColumnar(CoverageData data) {
+        return ranker.rank(rankingAlgorithm, data.columnarSpectrum);
+    }
+
+    @Benchmark
+    public Spectrum rank(CoverageData data) {
+        return ranker.rank(rankingAlgorithm, data.spectrum);
+    }
+
+    @Benchmark
+    public Spectrum rankTop10(CoverageData data) {
+        return ranker.rank(rankingAlgorithm, data.spectrum, 10);
+    }
+
+    @Benchmark
+    public Metrics evaluate(CoverageData data) {
+        return Metrics.fromRanks(ranker.rankLocations(rankingAlgorithm, data.columnarSpectrum));
+    }
+
+    /**
+     * Ranking by all algorithms, sharing sorts within rank-equivalence classes
+     */
+    @State(Scope.Thread)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+    public static class RankAll {
+        private final Ranker ranker = new Ranker();
+
+        @Benchmark
+        public List<Spectrum> rankAll(CoverageData data) {
+            return ranker.rankAll(data.spectrum);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package edu.vt.cs.benchmarks;
+
+import edu.vt.cs.evaluation.EvalResult;
+import edu.vt.cs.evaluation.ImmutableEvalResult;
+import edu.vt.cs.evaluation.Metrics;
+import edu.vt.cs.evaluation.MetricsCollector;
+import edu.vt.cs.evaluation.OverallMetrics;
+import edu.vt.cs.evaluation.TriggeringMode;
+import edu.vt.cs.models.Project;
+import edu.vt.cs.ranking.RankingAlgorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading back and reducing eval results, per batch of {@code results} csv lines
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class ResultsBenchmark {
+    @Param({"10000"})
+    public int results;
+
+    private List<String> lines;
+
+    private List<Metrics> metrics;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var random = new SplittableRandom(42);
+        lines = new ArrayList<>(results);
+        metrics = new ArrayList<>(results);
+        for (int i=0; i<results; i++) {
+            var ranks = random.ints(1 + random.nextInt(5), 1, 2000).sorted().boxed().toList();
+            EvalResult evalResult = ImmutableEvalResult.of(Project.values()[i % Project.values().length], i,
+                    TriggeringMode.values()[i % TriggeringMode.values().length],
+                    RankingAlgorithm.values()[i % RankingAlgorithm.values().length], Metrics.fromRanks(ranks));
+            lines.add(evalResult.getCsvFormat());
+            metrics.add(evalResult.getMetrics());
+        }
+    }
+
+    @Benchmark
+    public void parseLine(Blackhole blackhole) {
+        for (String line : lines) {
+            blackhole.consume(EvalResult.parseLine(line));
+        }
+    }
+
+    @Benchmark
+    public OverallMetrics collectMetrics() {
+        return metrics.stream().collect(new MetricsCollector());
+    }
+}
@@ -0,0 +1,239 @@
+package edu.vt.cs.evaluation;
+
+import edu.vt.cs.models.Bug;
+import edu.vt.cs.models.Project;
+import edu.vt.cs.ranking.RankingAlgorithm;
+import edu.vt.cs.utils.ContentHash;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of completed evaluation units, so an interrupted evaluation resumes where it stopped.
+ * A unit is a (bug, triggering mode, ranking algorithm) result, recorded together with a hash of its input: the
+ * content hash of the bug's coverage files, the FQNs of the bug's locations and {@link #FORMAT}. If any of them
+ * changes, the unit hash changes and the bug's logged results no longer count. Callers only deal with the content
+ * hash, which also keys the spectrum cache, and the unit hash is derived from it here.
+ * A bug is marked complete once all its spectra are evaluated, since modes with an empty spectrum have no result.
+ * Lines of the log:
+ * <pre>
+ * H|project|bugId|size:mtime;...|contentHash  content hash of the bug's files, trusted while their size and mtime match
+ * R|unitHash|project|bugId|mode|algorithm|top1|top5|top10|map|mrr|rank,rank,...  one result
+ * B|project|bugId|unitHash  the bug is complete
+ * </pre>
+ * Doubles are written with {@link Double#toString} so that logged results read back exactly.
+ */
+public class Checkpoint implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Part of every unit's hash, to be bumped whenever a change in parsing, ranking or metrics makes logged results
+     * stale although the coverage files did not change
+     */
+    private static final String FORMAT = "checkpoint-v1";
+
+    private final Map<String, String[]> hashes = new HashMap<>();
+
+    /**
+     * (bug, hash) -> (mode, algorithm) -> result, the last logged result of a unit wins
+     */
+    private final Map<String, Map<String, EvalResult>> results = new HashMap<>();
+
+    private final Set<String> completedBugs = new HashSet<>();
+
+    private final BufferedWriter writer;
+
+    /**
+     * Load the log if it exists, new units are appended to it
+     */
+    public Checkpoint(Path logPath) throws IOException {
+        if (Files.exists(logPath)) {
+            try (var lines = Files.lines(logPath)) {
+                lines.forEach(this::load);
+            }
+            LOG.info("Loaded checkpoint {}: {} complete bugs", logPath, completedBugs.size());
+        }
+        writer = Files.newBufferedWriter(logPath, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private void load(String line) {
+        var parts = line.split("\\|", -1);
+        try {
+            switch (parts[0]) {
+                case "H" -> hashes.put(bugKey(parts[1], parts[2]), new String[] {parts[3], parts[4]});
+                case "R" -> putResult(hashKey(parts[2], parts[3], parts[1]), parseResult(parts));
+                case "B" -> completedBugs.add(hashKey(parts[1], parts[2], parts[3]));
+                default -> LOG.warn("Skipping unknown checkpoint line {}", line);
+            }
+        } catch (RuntimeException e) {
+            // e.g. the last line was cut by a crash
+            LOG.warn("Skipping invalid checkpoint line {}", line);
+        }
+    }
+
+    /**
+     * @return content hash of the bug's coverage files, only recomputed if their size or mtime changed;
+     * null if the files cannot be read, in which case nothing is recorded for the bug
+     */
+    public String hash(Bug bug, String gzoltarsPath) {
+        var files = ContentHash.coverageFiles(bug, gzoltarsPath);
+        var key = bugKey(bug.getProject().name(), String.valueOf(bug.getBugId()));
+        try {
+            var stamp = ContentHash.stamp(files);
+            synchronized (this) {
+                var known = hashes.get(key);
+                if (known != null && known[0].equals(stamp)) {
+                    return known[1];
+                }
+            }
+
+            var contentHash = ContentHash.sha256(files);
+            synchronized (this) {
+                hashes.put(key, new String[] {stamp, contentHash});
+                append(String.join(SEPARATOR, "H", bug.getProject().name(), String.valueOf(bug.getBugId()), stamp,
+                        contentHash));
+            }
+            return contentHash;
+        } catch (IOException e) {
+            LOG.warn("Cannot hash coverage files of bug = {}, it will not be checkpointed", bug.getName(), e);
+            return null;
+        }
+    }
+
+    /**
+     * @return whether all spectra of the bug were evaluated from these coverage files
+     */
+    public synchronized boolean isComplete(Bug bug, String hash) {
+        return hash != null && completedBugs.contains(hashKey(bug, unitHash(bug, hash)));
+    }
+
+    /**
+     * @return results of the bug already evaluated from these coverage files
+     */
+    public synchronized List<EvalResult> getResults(Bug bug, String hash) {
+        return hash == null ? List.of() : List.copyOf(results.getOrDefault(hashKey(bug, unitHash(bug, hash)), Map.of())
+                .values());
+    }
+
+    public synchronized void record(Bug bug, String hash, List<EvalResult> evalResults) {
+        if (hash == null || evalResults.isEmpty()) {
+            return;
+        }
+        var unitHash = unitHash(bug, hash);
+        evalResults.forEach(evalResult -> {
+            putResult(hashKey(bug, unitHash), evalResult);
+            append(formatResult(unitHash, evalResult));
+        });
+        flush();
+    }
+
+    public synchronized void recordComplete(Bug bug, String hash) {
+        if (hash == null) {
+            return;
+        }
+        var unitHash = unitHash(bug, hash);
+        completedBugs.add(hashKey(bug, unitHash));
+        append(String.join(SEPARATOR, "B", bug.getProject().name(), String.valueOf(bug.getBugId()), unitHash));
+        flush();
+    }
+
+    private void putResult(String hashKey, EvalResult evalResult) {
+        results.computeIfAbsent(hashKey, k -> new LinkedHashMap<>())
+                .put(evalResult.getTriggeringMode() + "/" + evalResult.getRankingAlgorithm(), evalResult);
+    }
+
+    private void append(String line) {
+        try {
+            writer.write(line);
+            writer.newLine();
+        } catch (IOException e) {
+            LOG.error("Failed to write checkpoint line {}", line, e);
+        }
+    }
+
+    private void flush() {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            LOG.error("Failed to flush checkpoint", e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+
+    private static String unitHash(Bug bug, String contentHash) {
+        return ContentHash.sha256(FORMAT, String.join("\n", bug.getLocationFqns()), contentHash);
+    }
+
+    private static String bugKey(String project, String bugId) {
+        return project + "::" + bugId;
+    }
+
+    private static String hashKey(String project, String bugId, String hash) {
+        return bugKey(project, bugId) + "::" + hash;
+    }
+
+    private static String hashKey(Bug bug, String hash) {
+        return hashKey(bug.getProject().name(), String.valueOf(bug.getBugId()), hash);
+    }
+
+    private static String formatResult(String hash, EvalResult evalResult) {
+        var metrics = evalResult.getMetrics();
+        return String.join(SEPARATOR, "R", hash,
+                evalResult.getProject().name(),
+                String.valueOf(evalResult.getBugId()),
+                String.valueOf(evalResult.getTriggeringMode()),
+                String.valueOf(evalResult.getRankingAlgorithm()),
+                String.valueOf(metrics.getTop1()),
+                String.valueOf(metrics.getTop5()),
+                String.valueOf(metrics.getTop10()),
+                Double.toString(metrics.getMap()),
+                Double.toString(metrics.getMrr()),
+                metrics.getRanks() == null
+                        ? "null"
+                        : metrics.getRanks().stream().map(String::valueOf).collect(Collectors.joining(",")));
+    }
+
+    private static EvalResult parseResult(String[] parts) {
+        var ranks = parts[11].equals("null")
+                ? null
+                : parts[11].isEmpty()
+                        ? List.<Integer>of()
+                        : Stream.of(parts[11].split(",")).map(Integer::parseInt).toList();
+
+        var metrics = ImmutableMetrics.builder()
+                .top1(Integer.parseInt(parts[6]))
+                .top5(Integer.parseInt(parts[7]))
+                .top10(Integer.parseInt(parts[8]))
+                .map(Double.parseDouble(parts[9]))
+                .mrr(Double.parseDouble(parts[10]))
+                .ranks(ranks)
+                .build();
+
+        return ImmutableEvalResult.of(
+                Project.valueOf(parts[2]),
+                Integer.parseInt(parts[3]),
+                parts[4].equals("null") ? null : TriggeringMode.valueOf(parts[4]),
+                parts[5].equals("null") ? null : RankingAlgorithm.valueOf(parts[5]),
+                metrics);
+    }
+}
@@ -0,0 +1,214 @@
+package edu.vt.cs.evaluation;
+
+import edu.vt.cs.models.Project;
+import edu.vt.cs.ranking.RankingAlgorithm;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Binary, column-oriented counterpart of the csv results file, written next to it by {@link Evaluator} and
+ * memory-mapped by {@link ResultStore}, so reporting does not format or parse any text.
+ * The file is a header followed by blocks of results, so it can be written as results come. Layout, all big-endian:
+ * <pre>
+ * header: int magic, int version, int #projects, int #triggering modes, int #ranking algorithms
+ * each block: int n,
+ * byte[n] project ordinal, byte[n] triggering mode ordinal (-1 if unknown), byte[n] algorithm ordinal (-1 if unknown)
+ * int[n] bug id
+ * long[n] top-1 | top-5 &lt;&lt; 21 | top-10 &lt;&lt; 42
+ * double[n] MAP, double[n] MRR
+ * int[n] number of ranks (-1 if unknown), followed by all ranks of the block's results
+ * </pre>
+ * Enum sizes are stored so that a file written before an enum changed is rejected instead of misread.
+ */
+public final class EvalResultsFile {
+    private static final int MAGIC = 0x53424652;
+
+    private static final int VERSION = 2;
+
+    private static final int HEADER_SIZE = 5 * Integer.BYTES;
+
+    /**
+     * Size of a result in a block, without its ranks: 3 ordinal bytes, bug id, packed tops, MAP, MRR, number of ranks
+     */
+    private static final int RESULT_SIZE = 3 * Byte.BYTES + Integer.BYTES + Long.BYTES + 2 * Double.BYTES
+            + Integer.BYTES;
+
+    private static final int TOP_BITS = 21;
+
+    private static final long TOP_MASK = (1L << TOP_BITS) - 1;
+
+    private EvalResultsFile() {
+    }
+
+    public static void write(Path path, List<EvalResult> evalResults) throws IOException {
+        try (var writer = new Writer(path)) {
+            writer.writeBlock(evalResults);
+        }
+    }
+
+    /**
+     * Appends blocks of results to a new results file
+     */
+    public static final class Writer implements AutoCloseable {
+        private final FileChannel channel;
+
+        public Writer(Path path) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            write(ByteBuffer.allocate(HEADER_SIZE)
+                    .putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putInt(Project.values().length)
+                    .putInt(TriggeringMode.values().length)
+                    .putInt(RankingAlgorithm.values().length));
+        }
+
+        public void writeBlock(List<EvalResult> evalResults) throws IOException {
+            int n = evalResults.size();
+            long numberOfRanks = evalResults.stream()
+                    .map(evalResult -> evalResult.getMetrics().getRanks())
+                    .mapToLong(ranks -> ranks == null ? 0 : ranks.size())
+                    .sum();
+            long size = Integer.BYTES + 3L * n + (long) Integer.BYTES * n + (long) Long.BYTES * n
+                    + 2L * Double.BYTES * n + (long) Integer.BYTES * n + Integer.BYTES * numberOfRanks;
+
+            var buffer = ByteBuffer.allocate(Math.toIntExact(size));
+            buffer.putInt(n);
+            evalResults.forEach(evalResult -> buffer.put((byte) evalResult.getProject().ordinal()));
+            evalResults.forEach(evalResult -> buffer.put(ordinal(evalResult.getTriggeringMode())));
+            evalResults.forEach(evalResult -> buffer.put(ordinal(evalResult.getRankingAlgorithm())));
+            evalResults.forEach(evalResult -> buffer.putInt(evalResult.getBugId()));
+            evalResults.forEach(evalResult -> buffer.putLong(packTops(evalResult.getMetrics())));
+            evalResults.forEach(evalResult -> buffer.putDouble(evalResult.getMetrics().getMap()));
+            evalResults.forEach(evalResult -> buffer.putDouble(evalResult.getMetrics().getMrr()));
+            evalResults.forEach(evalResult -> buffer.putInt(evalResult.getMetrics().getRanks() == null
+                    ? -1
+                    : evalResult.getMetrics().getRanks().size()));
+            evalResults.forEach(evalResult -> {
+                if (evalResult.getMetrics().getRanks() != null) {
+                    evalResult.getMetrics().getRanks().forEach(buffer::putInt);
+                }
+            });
+            write(buffer);
+        }
+
+        private void write(ByteBuffer buffer) throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    public static List<EvalResult> read(Path path) throws IOException {
+        ByteBuffer buffer;
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException("Not a results file of version " + VERSION + ": " + path);
+        }
+        if (buffer.getInt() != Project.values().length || buffer.getInt() != TriggeringMode.values().length
+                || buffer.getInt() != RankingAlgorithm.values().length) {
+            throw new IOException("Results file " + path + " was written with different projects, modes or algorithms");
+        }
+
+        var projectValues = Project.values();
+        var modeValues = TriggeringMode.values();
+        var algorithmValues = RankingAlgorithm.values();
+        List<EvalResult> evalResults = new ArrayList<>();
+
+        while (buffer.hasRemaining()) {
+            if (buffer.remaining() < Integer.BYTES) {
+                throw new IOException("Results file " + path + " ends inside a block header");
+            }
+            int n = buffer.getInt();
+            if (n < 0 || (long) RESULT_SIZE * n > buffer.remaining()) {
+                throw new IOException("Results file " + path + " has a block of " + n + " results at "
+                        + (buffer.position() - Integer.BYTES) + " past its end");
+            }
+            int projects = buffer.position();
+            int modes = projects + n;
+            int algorithms = modes + n;
+            int bugIds = algorithms + n;
+            int tops = bugIds + Integer.BYTES * n;
+            int maps = tops + Long.BYTES * n;
+            int mrrs = maps + Double.BYTES * n;
+            int rankCounts = mrrs + Double.BYTES * n;
+            int rank = rankCounts + Integer.BYTES * n;
+
+            for (int i=0; i<n; i++) {
+                int numberOfRanks = buffer.getInt(rankCounts + Integer.BYTES * i);
+                if (numberOfRanks < -1 || rank + (long) Integer.BYTES * Math.max(numberOfRanks, 0) > buffer.limit()) {
+                    throw new IOException("Results file " + path + " has " + numberOfRanks + " ranks at " + rank
+                            + " past its end");
+                }
+                List<Integer> ranks = null;
+                if (numberOfRanks >= 0) {
+                    Integer[] rankValues = new Integer[numberOfRanks];
+                    for (int r=0; r<numberOfRanks; r++) {
+                        rankValues[r] = buffer.getInt(rank);
+                        rank += Integer.BYTES;
+                    }
+                    ranks = Arrays.asList(rankValues);
+                }
+
+                long packedTops = buffer.getLong(tops + Long.BYTES * i);
+                var metrics = ImmutableMetrics.builder()
+                        .top1((int) (packedTops & TOP_MASK))
+                        .top5((int) (packedTops >>> TOP_BITS & TOP_MASK))
+                        .top10((int) (packedTops >>> 2 * TOP_BITS & TOP_MASK))
+                        .map(buffer.getDouble(maps + Double.BYTES * i))
+                        .mrr(buffer.getDouble(mrrs + Double.BYTES * i))
+                        .ranks(ranks)
+                        .build();
+
+                byte project = buffer.get(projects + i);
+                byte mode = buffer.get(modes + i);
+                byte algorithm = buffer.get(algorithms + i);
+                if (project < 0 || project >= projectValues.length || mode >= modeValues.length
+                        || algorithm >= algorithmValues.length) {
+                    throw new IOException("Results file " + path + " has an unknown project, mode or algorithm");
+                }
+                evalResults.add(ImmutableEvalResult.of(
+                        projectValues[project],
+                        buffer.getInt(bugIds + Integer.BYTES * i),
+                        mode < 0 ? null : modeValues[mode],
+                        algorithm < 0 ? null : algorithmValues[algorithm],
+                        metrics));
+            }
+
+            buffer.position(rank);
+        }
+
+        return evalResults;
+    }
+
+    private static byte ordinal(Enum<?> value) {
+        return value == null ? -1 : (byte) value.ordinal();
+    }
+
+    private static long packTops(Metrics metrics) {
+        return pack(metrics.getTop1()) | pack(metrics.getTop5()) << TOP_BITS | pack(metrics.getTop10()) << 2 * TOP_BITS;
+    }
+
+    private static long pack(int top) {
+        if (top < 0 || top > TOP_MASK) {
+            throw new IllegalArgumentException("Top-k count out of range: " + top);
+        }
+        return top;
+    }
+}
@@ -0,0 +1,405 @@
+package edu.vt.cs.evaluation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.vt.cs.ranking.RankingAlgorithm;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.beans.ConstructorProperties;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * Timing and throughput of an evaluation run, broken down by stage: latency histograms of spectrum parsing, of
+ * ranking by each algorithm, of metric computation and of intermediate writes, with the bytes allocated by each
+ * stage, plus throughput counters and queue depths.
+ * Stats are updated concurrently by the evaluation threads, read through JMX while the run goes on, see
+ * {@link #register}, and written as a JSON summary at its end, see {@link #writeSummary}.
+ */
+public class EvaluationStats implements EvaluationStatsMXBean {
+    private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Allocation counting of the JVM, if it counts bytes allocated by each thread, null otherwise
+     */
+    private static final com.sun.management.ThreadMXBean THREADS = allocationCountingThreads();
+
+    public enum Stage {
+        PARSE, RANK, METRICS, WRITE
+    }
+
+    /**
+     * Start time and allocated bytes of the thread when a stage started, see {@link #start()}
+     */
+    public record Sample(long nanos, long allocatedBytes) {
+    }
+
+    private final long startNanos = System.nanoTime();
+
+    private final Map<Stage, Latency> stageLatencies = new EnumMap<>(Stage.class);
+
+    private final Map<RankingAlgorithm, Latency> rankingLatencies = new EnumMap<>(RankingAlgorithm.class);
+
+    private final LongAdder bugsEvaluated = new LongAdder();
+
+    private final LongAdder spectraEvaluated = new LongAdder();
+
+    private final LongAdder entitiesProcessed = new LongAdder();
+
+    private final LongAdder bytesRead = new LongAdder();
+
+    private final LongAdder bytesWritten = new LongAdder();
+
+    private final LongAdder resultsProduced = new LongAdder();
+
+    private final AtomicInteger pendingSpectra = new AtomicInteger();
+
+    private final LongAccumulator maxResultQueueDepth = new LongAccumulator(Math::max, 0);
+
+    private final IntSupplier resultQueueDepth;
+
+    private volatile ObjectName objectName;
+
+    /**
+     * @param resultQueueDepth current depth of the result queue, e.g. {@link ResultSink#getQueueDepth()}
+     */
+    public EvaluationStats(IntSupplier resultQueueDepth) {
+        this.resultQueueDepth = resultQueueDepth;
+        for (Stage stage : Stage.values()) {
+            stageLatencies.put(stage, new Latency());
+        }
+        for (RankingAlgorithm rankingAlgorithm : RankingAlgorithm.values()) {
+            rankingLatencies.put(rankingAlgorithm, new Latency());
+        }
+    }
+
+    /**
+     * @return a sample to pass to {@link #record} once the stage is done, on the same thread
+     */
+    public Sample start() {
+        return new Sample(System.nanoTime(), allocatedBytes());
+    }
+
+    public void record(Stage stage, Sample start) {
+        stageLatencies.get(stage).record(System.nanoTime() - start.nanos(), allocatedSince(start));
+    }
+
+    /**
+     * Record the ranking of a spectrum by an algorithm, both as the algorithm's and as the {@link Stage#RANK} stage's
+     */
+    public void recordRanking(RankingAlgorithm rankingAlgorithm, Sample start, int entities) {
+        long nanos = System.nanoTime() - start.nanos();
+        long allocated = allocatedSince(start);
+        rankingLatencies.get(rankingAlgorithm).record(nanos, allocated);
+        stageLatencies.get(Stage.RANK).record(nanos, allocated);
+        entitiesProcessed.add(entities);
+    }
+
+    public void addBytesRead(long bytes) {
+        bytesRead.add(bytes);
+    }
+
+    public void addBytesWritten(long bytes) {
+        bytesWritten.add(bytes);
+    }
+
+    public void spectrumScheduled() {
+        pendingSpectra.incrementAndGet();
+    }
+
+    public void spectrumStarted() {
+        pendingSpectra.decrementAndGet();
+    }
+
+    /**
+     * Count the results of an evaluated spectrum, and sample the result queue they are handed to
+     */
+    public void spectrumEvaluated(int results) {
+        spectraEvaluated.increment();
+        resultsProduced.add(results);
+        maxResultQueueDepth.accumulate(resultQueueDepth.getAsInt());
+    }
+
+    public void bugEvaluated() {
+        bugsEvaluated.increment();
+    }
+
+    @Override
+    public long getElapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    @Override
+    public long getBugsEvaluated() {
+        return bugsEvaluated.sum();
+    }
+
+    @Override
+    public long getSpectraEvaluated() {
+        return spectraEvaluated.sum();
+    }
+
+    @Override
+    public long getEntitiesProcessed() {
+        return entitiesProcessed.sum();
+    }
+
+    @Override
+    public long getBytesRead() {
+        return bytesRead.sum();
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    @Override
+    public long getResultsProduced() {
+        return resultsProduced.sum();
+    }
+
+    @Override
+    public int getPendingSpectra() {
+        return pendingSpectra.get();
+    }
+
+    @Override
+    public int getResultQueueDepth() {
+        return resultQueueDepth.getAsInt();
+    }
+
+    @Override
+    public int getMaxResultQueueDepth() {
+        return maxResultQueueDepth.intValue();
+    }
+
+    @Override
+    public Map<String, LatencySnapshot> getLatencies() {
+        Map<String, LatencySnapshot> latencies = new LinkedHashMap<>();
+        stageLatencies.forEach((stage, latency) -> latencies.put(stage.name().toLowerCase(), latency.snapshot()));
+        rankingLatencies.forEach((rankingAlgorithm, latency) -> {
+            if (latency.count() > 0) {
+                latencies.put("rank:" + rankingAlgorithm.name(), latency.snapshot());
+            }
+        });
+        return latencies;
+    }
+
+    /**
+     * Register as an MXBean of the platform MBean server, named {@code edu.vt.cs:type=EvaluationStats,name="<name>"},
+     * replacing the stats of an earlier run of the same name. Failing to register is only logged.
+     */
+    public void register(String name) {
+        try {
+            var server = ManagementFactory.getPlatformMBeanServer();
+            var objectName = new ObjectName("edu.vt.cs:type=EvaluationStats,name=" + ObjectName.quote(name));
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(this, objectName);
+            this.objectName = objectName;
+        } catch (JMException e) {
+            LOG.warn("Failed to register evaluation stats {} to JMX", name, e);
+        }
+    }
+
+    public void unregister() {
+        var objectName = this.objectName;
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException e) {
+            LOG.warn("Failed to unregister evaluation stats {} from JMX", objectName, e);
+        }
+        this.objectName = null;
+    }
+
+    /**
+     * @return counters, throughputs and latencies, in the order they are written to the summary
+     */
+    public Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        long elapsedMillis = getElapsedMillis();
+        double seconds = Math.max(elapsedMillis, 1) / 1000.0;
+        summary.put("elapsedMillis", elapsedMillis);
+        summary.put("bugsEvaluated", getBugsEvaluated());
+        summary.put("spectraEvaluated", getSpectraEvaluated());
+        summary.put("resultsProduced", getResultsProduced());
+        summary.put("entitiesProcessed", getEntitiesProcessed());
+        summary.put("bytesRead", getBytesRead());
+        summary.put("bytesWritten", getBytesWritten());
+        summary.put("spectraPerSecond", getSpectraEvaluated() / seconds);
+        summary.put("entitiesPerSecond", getEntitiesProcessed() / seconds);
+        summary.put("bytesReadPerSecond", getBytesRead() / seconds);
+        summary.put("maxResultQueueDepth", getMaxResultQueueDepth());
+        summary.put("allocationCounted", THREADS != null);
+        summary.put("latencies", getLatencies());
+        return summary;
+    }
+
+    public void writeSummary(Path summaryPath) throws IOException {
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(summaryPath.toFile(), summary());
+    }
+
+    /**
+     * @return bytes allocated by the current thread so far, -1 if unknown, e.g. on a virtual thread
+     */
+    private static long allocatedBytes() {
+        return THREADS == null ? -1 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    private static long allocatedSince(Sample start) {
+        long allocated = allocatedBytes();
+        return allocated < 0 || start.allocatedBytes() < 0 ? -1 : allocated - start.allocatedBytes();
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCountingThreads() {
+        try {
+            if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                    && threads.isThreadAllocatedMemorySupported()) {
+                threads.setThreadAllocatedMemoryEnabled(true);
+                return threads;
+            }
+        } catch (UnsupportedOperationException | SecurityException e) {
+            LOG.debug("Allocation counting is not available", e);
+        }
+        return null;
+    }
+
+    /**
+     * Histogram of latencies in buckets of powers of two nanoseconds, bucket b holding latencies in [2^(b-1), 2^b),
+     * so that percentiles are known within a factor of two at the cost of a few atomic adds per sample
+     */
+    static class Latency {
+        private final AtomicLongArray buckets = new AtomicLongArray(Long.SIZE);
+
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder totalNanos = new LongAdder();
+
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        private final LongAdder allocatedBytes = new LongAdder();
+
+        void record(long nanos, long allocated) {
+            nanos = Math.max(nanos, 0);
+            buckets.incrementAndGet(Math.min(Long.SIZE - Long.numberOfLeadingZeros(nanos), Long.SIZE - 1));
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            if (allocated > 0) {
+                allocatedBytes.add(allocated);
+            }
+        }
+
+        long count() {
+            return count.sum();
+        }
+
+        LatencySnapshot snapshot() {
+            long[] counts = new long[buckets.length()];
+            long n = 0;
+            for (int b=0; b<counts.length; b++) {
+                counts[b] = buckets.get(b);
+                n += counts[b];
+            }
+            long max = maxNanos.get();
+            return new LatencySnapshot(n, n == 0 ? 0 : totalNanos.sum() / n, percentile(counts, n, 0.5, max),
+                    percentile(counts, n, 0.9, max), percentile(counts, n, 0.99, max), max, allocatedBytes.sum());
+        }
+
+        /**
+         * @return upper bound of the bucket holding the percentile, at most the max
+         */
+        private static long percentile(long[] counts, long n, double percentile, long max) {
+            long rank = (long) Math.ceil(percentile * n);
+            long seen = 0;
+            for (int b=0; b<counts.length; b++) {
+                seen += counts[b];
+                if (seen >= rank && seen > 0) {
+                    return Math.min(b == 0 ? 0 : (1L << b) - 1, max);
+                }
+            }
+            return max;
+        }
+    }
+
+    /**
+     * Latencies of a stage at some point of the run, in nanoseconds
+     */
+    public static class LatencySnapshot {
+        private final long count;
+
+        private final long meanNanos;
+
+        private final long p50Nanos;
+
+        private final long p90Nanos;
+
+        private final long p99Nanos;
+
+        private final long maxNanos;
+
+        private final long allocatedBytes;
+
+        @ConstructorProperties({"count", "meanNanos", "p50Nanos", "p90Nanos", "p99Nanos", "maxNanos", "allocatedBytes"})
+        public LatencySnapshot(long count, long meanNanos, long p50Nanos, long p90Nanos, long p99Nanos, long maxNanos,
+                               long allocatedBytes) {
+            this.count = count;
+            this.meanNanos = meanNanos;
+            this.p50Nanos = p50Nanos;
+            this.p90Nanos = p90Nanos;
+            this.p99Nanos = p99Nanos;
+            this.maxNanos = maxNanos;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMeanNanos() {
+            return meanNanos;
+        }
+
+        public long getP50Nanos() {
+            return p50Nanos;
+        }
+
+        public long getP90Nanos() {
+            return p90Nanos;
+        }
+
+        public long getP99Nanos() {
+            return p99Nanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        /**
+         * @return bytes allocated by the stage, on platform threads only, since allocations of virtual threads are
+         * not counted
+         */
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package edu.vt.cs.evaluation;
+
+import java.util.Map;
+
+/**
+ * Counters of a running evaluation, readable through JMX, e.g. with jconsole, while {@link Evaluator#evalAll}
+ * runs. Latencies are keyed by stage, and by {@code rank:<algorithm>} for each ranking algorithm.
+ */
+public interface EvaluationStatsMXBean {
+
+    long getElapsedMillis();
+
+    long getBugsEvaluated();
+
+    long getSpectraEvaluated();
+
+    long getEntitiesProcessed();
+
+    long getBytesRead();
+
+    long getBytesWritten();
+
+    long getResultsProduced();
+
+    /**
+     * @return spectra waiting for a ranking thread
+     */
+    int getPendingSpectra();
+
+    /**
+     * @return batches of results waiting to be written by the result sink
+     */
+    int getResultQueueDepth();
+
+    int getMaxResultQueueDepth();
+
+    Map<String, EvaluationStats.LatencySnapshot> getLatencies();
+}
@@ -1,189 +1,327 @@
 package edu.vt.cs.evaluation;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.vt.cs.models.Bug;
 import edu.vt.cs.models.BugType;
+import edu.vt.cs.models.ColumnarSpectrum;
 import edu.vt.cs.models.Constants;
 import edu.vt.cs.models.Project;
-import edu.vt.cs.models.Spectrum;
 import edu.vt.cs.ranking.Ranker;
+import edu.vt.cs.ranking.RankingAlgorithm;
 import edu.vt.cs.utils.BugParser;
-import edu.vt.cs.utils.CoverageParser;
+import edu.vt.cs.utils.IoExecutors;
+import edu.vt.cs.utils.SpectrumCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.invoke.MethodHandles;
-import java.nio.charset.Charset;
 import java.nio.file.Files;
-import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
-import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
-
-import static edu.vt.cs.evaluation.ResultParser.processedSpectrum;
-import static edu.vt.cs.utils.TestSubsetUtil.divideListBySizeK;
 
 import org.apache.commons.io.FileUtils;
 
 public class Evaluator {
     private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Maximum number of spectra whose results wait to be written before evaluation blocks
+     */
+    static final int RESULT_QUEUE_CAPACITY = 1024;
+
+    /**
+     * Whether units already in the checkpoint log are skipped, true by default, can be disabled with
+     * -Dsbfl.resume=false to evaluate everything again
+     */
+    static final boolean RESUME = Boolean.parseBoolean(System.getProperty("sbfl.resume", "true"));
+
+    /**
+     * Number of worker threads, all cores by default, can be set with -Dsbfl.parallelism=n
+     */
+    static final int DEFAULT_PARALLELISM = Integer.getInteger("sbfl.parallelism",
+            Runtime.getRuntime().availableProcessors());
 
     private String gzoltarsDir = Constants.GZOLT_ROOT;
 
+    private final int parallelism;
+
+    private final SpectrumCache spectrumCache = new SpectrumCache(Paths.get(Constants.SPECTRUM_CACHE_DIR));
+
+    /**
+     * Stats of the current run, or of the last one once it is done
+     */
+    private volatile EvaluationStats stats = new EvaluationStats(() -> 0);
+
     public Evaluator(String gzoltarsDir) {
+        this(gzoltarsDir, DEFAULT_PARALLELISM);
+    }
+
+    public Evaluator(String gzoltarsDir, int parallelism) {
         if (gzoltarsDir != null) {
             this.gzoltarsDir = gzoltarsDir;
         }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive, got " + parallelism);
+        }
+        this.parallelism = parallelism;
     }
 
     /**
-     * [1] given a bug and a triggering mode, build a corresponding spectrum snapshot
-     */
-    private final BiFunction<Bug, TriggeringMode, Callable<Spectrum>> toSpectrumParsingTask
-            = (bug, triggeringMode) -> () -> CoverageParser.parse(bug, triggeringMode, gzoltarsDir);
-
-    /**
-     * [2] do a ranking on a spectrum's entities, using all algorithms
+     * [1] given a bug and the content hash of its coverage data, build its columnar spectrum snapshots of all
+     * triggering modes from one pass over the data, or read them from the spectrum cache if it was parsed before;
+     * fails with an {@link UncheckedIOException} if the data cannot be parsed
      */
-    private static final Function<Spectrum, Callable<List<Spectrum>>> toRankingTasks
-            = spectrum -> () -> new Ranker().rankAll(spectrum);
+    private final BiFunction<Bug, String, Collection<ColumnarSpectrum>> toSpectra = (bug, hash) -> {
+        var sample = stats.start();
+        try {
+            var spectra = spectrumCache.parseColumnar(bug, hash, gzoltarsDir, stats::addBytesRead).values();
+            stats.record(EvaluationStats.Stage.PARSE, sample);
+            return spectra;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    };
 
     /**
-     * [3] write a spectrum with ranked list of entities to a file
+     * [3] append the ranking of a spectrum by an algorithm to the spectrum's intermediate file, see
+     * {@link SpectrumFile}
      */
-    private final BiFunction<Spectrum, BugType, Runnable> toFileWritingTask = (spectrum, bugType) -> () -> {
-        Path destPath = Paths.get(bugType.getTmpSpectrumDir(), spectrum.getName() + "." + Constants.RESULT_FILE_TYPE);
+    private final BiFunction<SpectrumFile.Writer, SpectrumFile.Section, Runnable> toFileWritingTask
+            = (writer, section) -> () -> {
         try {
-            LOG.info("Writing spectrum = {} result to file", spectrum.getName());
-            String jsonContent = objectMapper.writeValueAsString(spectrum);
-            Files.writeString(destPath, jsonContent, Charset.defaultCharset());
+            LOG.info("Writing ranking by {} to {}", section.rankingAlgorithm(), writer.getPath().getFileName());
+            var sample = stats.start();
+            long bytesWritten = writer.getBytesWritten();
+            writer.writeSection(section);
+            stats.record(EvaluationStats.Stage.WRITE, sample);
+            stats.addBytesWritten(writer.getBytesWritten() - bytesWritten);
         } catch (Exception e) {
-            LOG.error("Failed to write spectrum = {} result to file", spectrum.getName(), e);
+            LOG.error("Failed to write ranking by {} to {}", section.rankingAlgorithm(), writer.getPath(), e);
         }
     };
 
-    private final Function<Spectrum, Callable<Optional<EvalResult>>> spectrumToEvalResult = spectrum -> () -> {
+    /**
+     * Write the FQN dictionary shared by the intermediate files of a bug's spectra
+     */
+    private void writeDictionary(Bug bug, Collection<ColumnarSpectrum> spectra, BugType bugType) {
+        var fqns = spectra.stream().filter(spectrum -> !spectrum.isEmpty()).findFirst().map(ColumnarSpectrum::getFqns);
+        if (fqns.isEmpty()) {
+            return;
+        }
+        var path = SpectrumFile.dictionaryPath(Paths.get(bugType.getTmpSpectrumDir()), bug);
         try {
-            return processedSpectrum.apply(spectrum).call();
-        } catch (Exception e) {
-            LOG.error("Error while converting spectrum to eval results");
+            var sample = stats.start();
+            stats.addBytesWritten(SpectrumFile.writeDictionary(path, fqns.get()));
+            stats.record(EvaluationStats.Stage.WRITE, sample);
+        } catch (IOException e) {
+            LOG.error("Failed to write FQN dictionary of bug = {} to {}", bug.getName(), path, e);
         }
-        return Optional.empty();
-    };
-
-    static final int threadPoolSize = Runtime.getRuntime().availableProcessors();
-    static final int k = 4;
+    }
 
     /**
-     * Given a list of bugs, process them according to this workflow:
-     * [1] map each bug to spectrum of all triggering modes (1 bug => 16 spectrums, because of 16 triggering modes)
-     * [2] rank entities in a spectrum using all algorithms (each spectrum => 25 ranked lists, because of 25 algorithms)
-     * [3] write some 16 * 25 processed spectrums to files for later calculate metrics
-     * @param bugs: a set of bugs
-     * @throws InterruptedException
+     * [2] rank a spectrum's entities by each algorithm and evaluate the ranking right away, so no ranked spectrum
+     * outlives its algorithm. Entities are only sorted when the ranking is written to the intermediate file [3],
+     * the algorithms of a rank-equivalence class sharing one sort, otherwise only the ranks of the bug's locations
+     * are computed.
+     * Rankings are written on the I/O executor while the next algorithms rank, each write chained onto the previous
+     * one, so the ranking thread never waits for I/O.
+     * Algorithms in {@code done} are skipped, their results being already checkpointed.
+     * Ranking and metric computation are timed apart, see {@link EvaluationStats}.
+     * @return the eval results, once the spectrum's intermediate file, if any, is written and closed
      */
-    private String eval(List<Bug> bugs, boolean writeIntermediateResults, BugType bugType) throws InterruptedException {
-
-        final ExecutorService executorService = Executors.newFixedThreadPool(k);
-
-        var parsingToSpectrumTasks = bugs
-                .stream()
-                .sorted(Comparator.comparing(Bug::getProject).thenComparing(Bug::getBugId))
-                .flatMap(bug -> Stream.of(TriggeringMode.values())
-                        .map(triggeringMode -> toSpectrumParsingTask.apply(bug, triggeringMode)))
-                .collect(Collectors.toList());
-
-        List<Future<Spectrum>> spectrumFutureList = executorService.invokeAll(parsingToSpectrumTasks, 7L, TimeUnit.DAYS);
-
-        var rankingTasks = spectrumFutureList.stream()
-                .map(Evaluator::parseFutureGet)
-                .filter(Objects::nonNull)
-                .filter(spectrum -> !spectrum.getIsEmpty())
-                .map(toRankingTasks)
-                .collect(Collectors.toList());
-
-        var processedSpectrums = executorService.invokeAll(rankingTasks, 7L, TimeUnit.DAYS)
-                .stream()
-                .map(Evaluator::parseFutureGet)
-                .filter(Objects::nonNull)
-                .flatMap(Collection::stream).toList();
-
-        if (writeIntermediateResults) {
-            var writingResultToFileTasks = processedSpectrums.stream()
-                    .map(spectrum -> toFileWritingTask.apply(spectrum, bugType))
-                    .map(executorService::submit)
-                    .toList();
-
-            writingResultToFileTasks.forEach(Evaluator::getRunnable);
+    private CompletableFuture<List<EvalResult>> evaluate(ColumnarSpectrum spectrum, boolean writeIntermediateResults, BugType bugType,
+                                      Executor ioExecutor, Set<RankingAlgorithm> done) {
+        stats.spectrumStarted();
+        var ranker = new Ranker();
+        var writer = writeIntermediateResults
+                ? new SpectrumFile.Writer(SpectrumFile.spectrumPath(Paths.get(bugType.getTmpSpectrumDir()),
+                        spectrum.getBug(), spectrum.getTriggeringMode()), spectrum)
+                : null;
+        List<EvalResult> evalResults = new ArrayList<>(RankingAlgorithm.values().length);
+        Map<RankingAlgorithm, int[]> classRankings = new EnumMap<>(RankingAlgorithm.class);
+        CompletableFuture<Void> pendingWrite = CompletableFuture.completedFuture(null);
+
+        for (RankingAlgorithm rankingAlgorithm : RankingAlgorithm.values()) {
+            if (done.contains(rankingAlgorithm)) {
+                continue;
+            }
+            try {
+                Metrics metrics;
+                var sample = stats.start();
+                if (writeIntermediateResults) {
+                    int[] ranking = ranker.rank(rankingAlgorithm, spectrum, classRankings);
+                    stats.recordRanking(rankingAlgorithm, sample, spectrum.size());
+                    sample = stats.start();
+                    var locationRanks = ranker.locationRanks(ranking, spectrum);
+                    metrics = Metrics.fromRanks(locationRanks);
+                    stats.record(EvaluationStats.Stage.METRICS, sample);
+                    var section = SpectrumFile.section(rankingAlgorithm, spectrum, ranking, locationRanks);
+                    pendingWrite = pendingWrite.thenRunAsync(toFileWritingTask.apply(writer, section), ioExecutor);
+                } else {
+                    var locationRanks = ranker.rankLocations(rankingAlgorithm, spectrum);
+                    stats.recordRanking(rankingAlgorithm, sample, spectrum.size());
+                    sample = stats.start();
+                    metrics = Metrics.fromRanks(locationRanks);
+                    stats.record(EvaluationStats.Stage.METRICS, sample);
+                }
+
+                evalResults.add(ImmutableEvalResult.of(spectrum.getProject(), spectrum.getBug().getBugId(),
+                        spectrum.getTriggeringMode(), rankingAlgorithm, metrics));
+            } catch (Exception e) {
+                LOG.error("Error while evaluating spectrum = {} by {}", spectrum.getName(), rankingAlgorithm, e);
+            }
         }
 
-        return processedSpectrums.stream()
-                .map(spectrumToEvalResult)
-                .map(executorService::submit)
-                .map(Evaluator::parseFutureGet)
-                .filter(Objects::nonNull)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .map(EvalResult::getCsvFormat)
-                .collect(Collectors.joining("\n"));
-
+        if (writer != null) {
+            pendingWrite = pendingWrite.thenRunAsync(() -> {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    LOG.error("Failed to close intermediate file {}", writer.getPath(), e);
+                }
+            }, ioExecutor);
+        }
+        return pendingWrite.thenApply(written -> evalResults);
     }
 
-    private static synchronized void saveCSVResults(List<String> csvLines, BugType bugType) {
-        var destFilePath= Paths.get(bugType.getOutputResultDir(), bugType.getCsvResultsFileName());
-        String csvContent = String.join("\n", csvLines);
-        try {
-            Files.writeString(destFilePath, csvContent);
-        } catch (Exception e) {
-            LOG.error("Error writing to file {}", csvContent);
-        }
+    /**
+     * Given a bug, process it according to this workflow, as dependent stages: I/O on the I/O executor, ranking on
+     * the scheduler
+     * [1] map the bug to spectrum of all triggering modes (1 bug => 16 spectrums, because of 16 triggering modes),
+     * parsing its coverage data only once, and only if the spectrum cache has no entry for its hash
+     * [2] rank entities in each spectrum using all algorithms (each spectrum => 25 rankings, because of 25
+     * algorithms), computing the metrics of each ranking as soon as it is made; the spectrums are ranked in parallel
+     * [3] optionally write the 16 * 25 rankings to one binary file per spectrum, next to one FQN dictionary
+     * per bug, one ranking at a time
+     * The eval results of each spectrum are checkpointed and handed to the sink as soon as they are computed.
+     * Before [1], the bug's coverage files are hashed: results checkpointed for the same content are handed to the
+     * sink as they are, and only the missing (triggering mode, algorithm) units are evaluated, none if the bug is
+     * complete. Checkpointed results are not reused when intermediate files are written, as those need every ranking.
+     * @param bug: a bug
+     */
+    private CompletableFuture<Void> eval(Bug bug, boolean writeIntermediateResults, BugType bugType,
+                                         Executor scheduler, Executor ioExecutor, ResultSink resultSink,
+                                         Checkpoint checkpoint) {
+        boolean resume = RESUME && !writeIntermediateResults;
+        return CompletableFuture.supplyAsync(() -> checkpoint.hash(bug, gzoltarsDir), ioExecutor)
+                .thenCompose(hash -> {
+                    var checkpointed = resume ? checkpoint.getResults(bug, hash) : List.<EvalResult>of();
+                    resultSink.accept(checkpointed);
+                    if (resume && checkpoint.isComplete(bug, hash)) {
+                        LOG.info("Bug = {} is already evaluated, {} results from checkpoint", bug.getName(),
+                                checkpointed.size());
+                        return CompletableFuture.completedFuture(null);
+                    }
+
+                    Map<TriggeringMode, Set<RankingAlgorithm>> done = new EnumMap<>(TriggeringMode.class);
+                    checkpointed.forEach(evalResult -> done
+                            .computeIfAbsent(evalResult.getTriggeringMode(), m -> EnumSet.noneOf(RankingAlgorithm.class))
+                            .add(evalResult.getRankingAlgorithm()));
+                    AtomicBoolean failed = new AtomicBoolean(false);
+
+                    return CompletableFuture.supplyAsync(() -> {
+                                Collection<ColumnarSpectrum> spectra;
+                                try {
+                                    spectra = toSpectra.apply(bug, hash);
+                                } catch (UncheckedIOException e) {
+                                    // as opposed to a bug without spectra, the bug stays incomplete
+                                    LOG.error("Failed to parse into spectrum of bug = {}", bug.getName(), e.getCause());
+                                    failed.set(true);
+                                    return List.<ColumnarSpectrum>of();
+                                }
+                                if (writeIntermediateResults) {
+                                    writeDictionary(bug, spectra, bugType);
+                                }
+                                return spectra;
+                            }, ioExecutor)
+                            .thenCompose(spectra -> CompletableFuture.allOf(spectra.stream()
+                                    .filter(spectrum -> !spectrum.isEmpty())
+                                    .map(spectrum -> {
+                                        var doneAlgorithms = done.getOrDefault(spectrum.getTriggeringMode(),
+                                                EnumSet.noneOf(RankingAlgorithm.class));
+                                        stats.spectrumScheduled();
+                                        return CompletableFuture.supplyAsync(
+                                                        () -> evaluate(spectrum, writeIntermediateResults, bugType,
+                                                                ioExecutor, doneAlgorithms),
+                                                        scheduler)
+                                                .thenCompose(evaluation -> evaluation)
+                                                .thenAccept(evalResults -> {
+                                                    if (doneAlgorithms.size() + evalResults.size()
+                                                            < RankingAlgorithm.values().length) {
+                                                        failed.set(true);
+                                                    }
+                                                    checkpoint.record(bug, hash, evalResults);
+                                                    resultSink.accept(evalResults);
+                                                    stats.spectrumEvaluated(evalResults.size());
+                                                });
+                                    })
+                                    .toArray(CompletableFuture[]::new)))
+                            .thenRun(() -> {
+                                // a bug with a failed unit stays incomplete, so the unit is retried on the next run
+                                if (!failed.get()) {
+                                    checkpoint.recordComplete(bug, hash);
+                                }
+                                stats.bugEvaluated();
+                            });
+                });
     }
 
+    /**
+     * Evaluate the bugs of a type that pass the filter, see {@link #evalAll(boolean, List, BugType)}
+     */
     public void evalAll(boolean writeToIntermediateFiles, Predicate<Bug> filter, BugType bugType) throws IOException, InterruptedException {
+        evalAll(writeToIntermediateFiles, BugParser.derBugs(bugType.getInputBugInfoFilePath())
+                .stream()
+                .filter(filter)
+                .toList(), bugType);
+    }
+
+    /**
+     * Evaluate bugs on a single work-stealing pool of {@code parallelism} threads, writing results to the bug type's
+     * directories. Bugs need not be those of the bug type, e.g. they can be synthetic ones written by
+     * {@link edu.vt.cs.utils.SyntheticSpectrumGenerator}.
+     * Each bug is an independent chain of stages, so a slow bug only occupies the threads working on it.
+     * At most {@code parallelism} bugs are in progress at once, so that parsing cannot run ahead of ranking and
+     * hold the spectra of many waiting bugs in memory.
+     * Parsing and file writing block on I/O, so they run on a separate bounded I/O executor (virtual threads when
+     * available, see {@link IoExecutors}) and never hold a ranking thread.
+     * Results are streamed to the csv and binary results files through a {@link ResultSink}, in completion order.
+     * Evaluated units are logged to a {@link Checkpoint} in the output directory, which is no longer cleaned, so
+     * a run that was interrupted, or that is given new bugs, only evaluates what is not in the log yet.
+     * Stages are timed in {@link EvaluationStats}, readable through JMX during the run and written as a JSON summary
+     * to the output directory at its end.
+     */
+    public void evalAll(boolean writeToIntermediateFiles, List<Bug> bugs, BugType bugType) throws IOException, InterruptedException {
 
         var startTime = LocalDateTime.now();
 
         AtomicInteger bugsProcessed = new AtomicInteger(0);
 
-        var allMultiLocationBugs = BugParser.derBugs(bugType.getInputBugInfoFilePath())
-                .stream()
-                .filter(filter)
+        var allMultiLocationBugs = bugs.stream()
+                .sorted(Comparator.comparing(Bug::getProject).thenComparing(Bug::getBugId))
                 .collect(Collectors.toList());
 
-        var bulkLoads = divideListBySizeK(allMultiLocationBugs, k);
-
-        Function<List<Bug>, Callable<Optional<String>>> bugsRunnable = bugs -> () -> {
-            try {
-                var tmp = eval(bugs, writeToIntermediateFiles, bugType);
-                LOG.info("\nBugs have been processed so far: {} / {}\n",
-                        bugsProcessed.addAndGet(bugs.size()), allMultiLocationBugs.size());
-                return Optional.of(tmp);
-            } catch (InterruptedException e) {
-                LOG.error("Error running these bugs ={} ", bugs, e);
-            }
-            return Optional.empty();
-        };
-
         if (writeToIntermediateFiles) {
             try {
                 FileUtils.cleanDirectory(Paths.get(bugType.getTmpSpectrumDir()).toFile());
@@ -192,53 +330,70 @@ public class Evaluator {
             }
         }
 
-        final ExecutorService executorService = Executors.newFixedThreadPool(threadPoolSize);
-
-        var tasks = bulkLoads.stream().map(bugsRunnable).toList();
-
-        var csvLines = executorService.invokeAll(tasks, 1L, TimeUnit.HOURS)
-                .stream()
-                .map(Evaluator::parseFutureGet)
-                .filter(Objects::nonNull)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .collect(Collectors.toList());
+        var checkpointPath = Paths.get(bugType.getOutputResultDir(), Constants.CHECKPOINT_FILE_NAME);
+        if (!RESUME) {
+            Files.deleteIfExists(checkpointPath);
+        }
 
-        LOG.info("We got back: {} csv lines", csvLines.size());
+        final ForkJoinPool scheduler = new ForkJoinPool(parallelism);
+        final ExecutorService ioExecutor = IoExecutors.newIoExecutor();
+        LOG.info("Evaluating {} bugs on {} ranking threads, I/O on up to {} {} threads", allMultiLocationBugs.size(),
+                parallelism, IoExecutors.DEFAULT_IO_CONCURRENCY,
+                IoExecutors.isUsingVirtualThreads() ? "virtual" : "platform");
+
+        var resultSink = new ResultSink(Paths.get(bugType.getOutputResultDir(), bugType.getCsvResultsFileName()),
+                Paths.get(bugType.getOutputResultDir(), bugType.getBinResultsFileName()), RESULT_QUEUE_CAPACITY);
+        var stats = new EvaluationStats(resultSink::getQueueDepth);
+        this.stats = stats;
+        stats.register(bugType.name());
+        var bugsInProgress = new Semaphore(parallelism);
+        try (resultSink; var checkpoint = new Checkpoint(checkpointPath)) {
+            List<CompletableFuture<Void>> chains = new ArrayList<>(allMultiLocationBugs.size());
+            for (Bug bug : allMultiLocationBugs) {
+                bugsInProgress.acquire();
+                chains.add(eval(bug, writeToIntermediateFiles, bugType, scheduler, ioExecutor, resultSink, checkpoint)
+                        .whenComplete((done, e) -> {
+                            bugsInProgress.release();
+                            LOG.info("\nBugs have been processed so far: {} / {}\n",
+                                    bugsProcessed.incrementAndGet(), allMultiLocationBugs.size());
+                        }));
+            }
+            chains.forEach(Evaluator::joinQuietly);
+        } catch (IOException e) {
+            LOG.error("Error writing results of type {}", bugType, e);
+        } finally {
+            scheduler.shutdown();
+            ioExecutor.shutdown();
+            stats.unregister();
+        }
 
         try {
-            FileUtils.cleanDirectory(Paths.get(bugType.getOutputResultDir()).toFile());
-        } catch (Exception e) {
-            LOG.error("Failed to cleanup result dir", e);
+            stats.writeSummary(Paths.get(bugType.getOutputResultDir(), Constants.STATS_FILE_NAME));
+        } catch (IOException e) {
+            LOG.error("Failed to write evaluation stats of type {}", bugType, e);
         }
 
-        saveCSVResults(csvLines, bugType);
+        LOG.info("We got back: {} results", resultSink.getCount());
 
         var endTime = LocalDateTime.now();
 
         LOG.info("DONE! time taken = {} SECONDS", ChronoUnit.SECONDS.between(startTime, endTime));
-
-        executorService.shutdown();
     }
 
-    private static <V> V parseFutureGet(Future<V> f) {
-        try {
-            return f.get(7L, TimeUnit.DAYS);
-        } catch (InterruptedException | ExecutionException | TimeoutException e) {
-            LOG.error("Failed to process spectrum due to concurrent issue: ", e);
-        } catch (Exception e) {
-            LOG.error("Failed to process spectrum, unknown issue: ", e);
-        }
-        return null;
+    /**
+     * @return stats of the current run, or of the last one once it is done
+     */
+    public EvaluationStats getStats() {
+        return stats;
     }
 
-    private static void getRunnable(Future<?> f) {
+    private static void joinQuietly(CompletableFuture<?> f) {
         try {
-            f.get(7L, TimeUnit.DAYS);
-        } catch (InterruptedException | ExecutionException | TimeoutException e) {
-            LOG.error("Failed to process spectrum due to concurrent issue: ", e);
+            f.join();
+        } catch (CompletionException e) {
+            LOG.error("Failed to process bug due to concurrent issue: ", e.getCause());
         } catch (Exception e) {
-            LOG.error("Failed to process spectrum, unknown issue: ", e);
+            LOG.error("Failed to process bug, unknown issue: ", e);
         }
     }
 
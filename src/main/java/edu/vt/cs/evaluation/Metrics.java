@@ -31,4 +31,52 @@ public abstract class Metrics {
     @Value.Parameter
     @Nullable
     public abstract List<Integer> getRanks();
+
+    /**
+     * Compute metrics from the ranks of a bug's locations
+     * @param ranks 1-based ranks sorted ascending, Integer.MAX_VALUE for a location missing from the ranked list
+     */
+    public static Metrics fromRanks(List<Integer> ranks) {
+        int top1 = 0;
+        int top5 = 0;
+        int top10 = 0;
+        double map = 0;
+        double mrr = 0;
+
+        int pos = (int) ranks.stream().filter(rank -> rank < Integer.MAX_VALUE).count();
+
+        int pk = 0;
+
+        for (int k=1; k<=ranks.size(); k++) {
+            int rank = ranks.get(k-1);
+
+            if (rank <= 10) {
+                top10++;
+                if (rank <= 5) {
+                    top5++;
+                    if (rank == 1) {
+                        top1++;
+                    }
+                }
+            }
+
+            if (rank < Integer.MAX_VALUE) {
+                pk++;
+                map += ((double) pk) / rank;
+            }
+        }
+
+        map = pos == 0 ? 0 : map / pos;
+
+        mrr = ((double) 1) / ranks.get(0);
+
+        return ImmutableMetrics.builder()
+                .top1(top1)
+                .top5(top5)
+                .top10(top10)
+                .map(map)
+                .mrr(mrr)
+                .ranks(ranks)
+                .build();
+    }
 }
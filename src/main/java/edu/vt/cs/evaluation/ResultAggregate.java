@@ -0,0 +1,77 @@
+package edu.vt.cs.evaluation;
+
+import edu.vt.cs.models.ResultReducedType;
+import edu.vt.cs.ranking.RankingAlgorithm;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collector;
+
+/**
+ * Overall metrics of a set of eval results by every {@link ResultReducedType} key and by every
+ * (ranking algorithm, triggering mode) cell, all accumulated in a single pass over the results.
+ * Accumulators are those of {@link MetricsCollector}, so aggregates of disjoint parts can be merged.
+ */
+public class ResultAggregate {
+    private final Map<ResultReducedType, Map<Object, MetricsCollector.Accumulator>> reduced
+            = new EnumMap<>(ResultReducedType.class);
+
+    private final Map<RankingAlgorithm, Map<TriggeringMode, MetricsCollector.Accumulator>> cells
+            = new EnumMap<>(RankingAlgorithm.class);
+
+    public ResultAggregate() {
+        for (ResultReducedType reducedType : ResultReducedType.values()) {
+            reduced.put(reducedType, new HashMap<>());
+        }
+    }
+
+    public static Collector<EvalResult, ResultAggregate, ResultAggregate> collector() {
+        return Collector.of(ResultAggregate::new, ResultAggregate::accept, ResultAggregate::merge,
+                Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    public void accept(EvalResult evalResult) {
+        var metrics = evalResult.getMetrics();
+
+        reduced.forEach((reducedType, byKey) -> byKey
+                .computeIfAbsent(reducedType.getReducer().apply(evalResult), key -> new MetricsCollector.Accumulator())
+                .add(metrics));
+
+        cells.computeIfAbsent(evalResult.getRankingAlgorithm(), a -> new EnumMap<>(TriggeringMode.class))
+                .computeIfAbsent(evalResult.getTriggeringMode(), m -> new MetricsCollector.Accumulator())
+                .add(metrics);
+    }
+
+    /**
+     * Merge another aggregate, of results that come after this one's, into this one. The other aggregate must not
+     * be used afterwards, as its accumulators may now be shared with this one.
+     */
+    public ResultAggregate merge(ResultAggregate other) {
+        other.reduced.forEach((reducedType, byKey) -> byKey.forEach((key, acc) ->
+                reduced.get(reducedType).merge(key, acc, MetricsCollector.Accumulator::merge)));
+
+        other.cells.forEach((rankingAlgorithm, byMode) -> byMode.forEach((triggeringMode, acc) ->
+                cells.computeIfAbsent(rankingAlgorithm, a -> new EnumMap<>(TriggeringMode.class))
+                        .merge(triggeringMode, acc, MetricsCollector.Accumulator::merge)));
+
+        return this;
+    }
+
+    /**
+     * @return overall metrics by key of the reducer, e.g. by project for {@link ResultReducedType#BY_PROJECT}
+     */
+    public Map<Object, OverallMetrics> getReduced(ResultReducedType reducedType) {
+        Map<Object, OverallMetrics> byKey = new HashMap<>();
+        reduced.get(reducedType).forEach((key, acc) -> byKey.put(key, acc.toOverallMetrics()));
+        return byKey;
+    }
+
+    /**
+     * @return overall metrics of one (ranking algorithm, triggering mode) cell, with a count of 0 if it has no result
+     */
+    public OverallMetrics get(RankingAlgorithm rankingAlgorithm, TriggeringMode triggeringMode) {
+        var acc = cells.getOrDefault(rankingAlgorithm, Map.of()).get(triggeringMode);
+        return (acc == null ? new MetricsCollector.Accumulator() : acc).toOverallMetrics();
+    }
+}
@@ -1,9 +1,7 @@
 package edu.vt.cs.evaluation;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.vt.cs.models.BugType;
 import edu.vt.cs.models.Constants;
-import edu.vt.cs.models.ImmutableSpectrum;
 import edu.vt.cs.models.ResultReducedType;
 import edu.vt.cs.models.Spectrum;
 import edu.vt.cs.ranking.RankingAlgorithm;
@@ -22,7 +20,6 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
-import java.util.stream.Collector;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -30,7 +27,10 @@ import java.util.stream.Stream;
 public class ResultParser {
     private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+    /**
+     * Results of both bug types, each csv results file being parsed only once for all tables and figures
+     */
+    private static final ResultStore RESULT_STORE = new ResultStore();
 
     private static final RankingAlgorithm DEFAULT_ALGORITHM = RankingAlgorithm.DICE;
 
@@ -295,39 +295,40 @@ public class ResultParser {
     }
 
     private static OverallMetrics extractBy(RankingAlgorithm algorithm, TriggeringMode triggeringMode, BugType bugType) {
-        List<String> allLines;
+        var overallMetrics = RESULT_STORE.getAggregate(bugType).get(algorithm, triggeringMode);
+
+        String csvContent = RESULT_STORE.get(bugType, algorithm, triggeringMode)
+                .stream()
+                .map(EvalResult::getCsvFormat)
+                .collect(Collectors.joining("\n"))
+                + "\n\n" + OverallMetrics.toScvHeaderLine() + overallMetrics.toCsvLine();
+
+        var fileName = String.format("%s_%s.csv", algorithm.name(), triggeringMode.name());
         try {
-            allLines = Files.readAllLines(Paths.get(bugType.getOutputResultDir(),
-                    bugType.getCsvResultsFileName()));
-        } catch (Exception e) {
+            Files.writeString(Paths.get(bugType.getOutputResultDir(), fileName), csvContent);
+        } catch (IOException e) {
             throw new RuntimeException(e);
         }
-
-        Collector<EvalResult, ?, String> cl1 = Collectors.mapping(EvalResult::getCsvFormat, Collectors.joining("\n"));
-        Collector<EvalResult, ?, OverallMetrics[]> cl2 = Collectors.mapping(EvalResult::getMetrics, new MetricsCollector());
-
-        return allLines.stream()
-                .map(EvalResult::parseLine)
-                .filter(evalResult -> evalResult.getRankingAlgorithm() == algorithm
-                        && evalResult.getTriggeringMode() == triggeringMode)
-                .collect(Collectors.teeing(cl1, cl2,
-                        (s, overallMetrics) -> {
-                            String csvContent = s + "\n\n" + OverallMetrics.toScvHeaderLine() + overallMetrics[0].toCsvLine();
-                            var fileName = String.format("%s_%s.csv", algorithm.name(), triggeringMode.name());
-                            try {
-                                Files.writeString(Paths.get(bugType.getOutputResultDir(), fileName), csvContent);
-                            } catch (IOException e) {
-                                throw new RuntimeException(e);
-                            }
-                            return overallMetrics[0];
-                }));
+        return overallMetrics;
     }
 
+    /**
+     * Write the reduced csv results of every reduction type. Each bug type's results are scanned once, feeding all
+     * reductions and all (algorithm, mode) cells used by the tables at the same time.
+     */
     public static void getAllResultsAndReduce() {
-        for (ResultReducedType resultReducedType : ResultReducedType.values()) {
-            for (BugType bugType : BugType.values()) {
+        for (BugType bugType : BugType.values()) {
+            ResultAggregate aggregate;
+            try {
+                aggregate = RESULT_STORE.getAggregate(bugType);
+            } catch (Exception e) {
+                LOG.error("Failed to read results of type {}", bugType, e);
+                continue;
+            }
+
+            for (ResultReducedType resultReducedType : ResultReducedType.values()) {
                 try {
-                    readAndSummarizeCsvResults(bugType, resultReducedType);
+                    writeReducedResults(bugType, resultReducedType, aggregate);
                 } catch (Exception e) {
                     LOG.error("Failed to reduce results by {} of type {}", resultReducedType, bugType, e);
                 }
@@ -335,29 +336,16 @@ public class ResultParser {
         }
     }
 
-    private static void readAndSummarizeCsvResults(BugType bugType, ResultReducedType reducedType)
+    private static void writeReducedResults(BugType bugType, ResultReducedType reducedType, ResultAggregate aggregate)
             throws IOException {
 
-        var lines = Files.readAllLines(Paths.get(bugType.getOutputResultDir(),
-                bugType.getCsvResultsFileName()));
-
-        var allMetricsResults = lines.stream()
-                .map(EvalResult::parseLine)
-                .collect(Collectors.groupingBy(
-
-                        reducedType.getReducer(),
-
-                        Collectors.mapping(EvalResult::getMetrics, new MetricsCollector())
+        Comparator<Map.Entry<Object, OverallMetrics>> comparator = Comparator
+                .<Map.Entry<Object, OverallMetrics>>comparingDouble(ent -> ent.getValue().getTop1Pct()).reversed();
 
-                ));
-
-        Comparator<Map.Entry<Object, OverallMetrics[]>> comparator = Comparator
-                .<Map.Entry<Object, OverallMetrics[]>>comparingDouble(ent -> ent.getValue()[0].getTop1Pct()).reversed();
-
-        var stringLines = allMetricsResults.entrySet()
+        var stringLines = aggregate.getReduced(reducedType).entrySet()
                 .stream()
                 .sorted(comparator)
-                .map(ent -> ent.getKey() + ", " + ent.getValue()[0].toCsvLine())
+                .map(ent -> ent.getKey() + ", " + ent.getValue().toCsvLine())
                 .collect(Collectors.joining("\n"));
 
         stringLines = (", " + OverallMetrics.toScvHeaderLine()) + stringLines;
@@ -383,21 +371,27 @@ public class ResultParser {
                 .build());
     };
 
-    private static Function<Path, Callable<Optional<EvalResult>>> spectrumFileToEvalResult = path -> () -> {
+    /**
+     * Eval results of the rankings in a binary spectrum file, see {@link SpectrumFile}. Metrics only need the stored
+     * ranks of the bug's locations, so the FQN dictionary is not read.
+     */
+    private static Function<Path, Callable<List<EvalResult>>> spectrumFileToEvalResult = path -> () -> {
+        List<EvalResult> evalResults = new ArrayList<>();
         try {
             LOG.info("[Start...] parsing results in {}", path.toFile().getName());
 
-            var spectrum = objectMapper.readValue(path.toFile(), ImmutableSpectrum.class);
-            return processedSpectrum.apply(spectrum).call();
+            for (Spectrum spectrum : SpectrumFile.read(path, null)) {
+                processedSpectrum.apply(spectrum).call().ifPresent(evalResults::add);
+            }
         } catch (IOException e) {
             LOG.error("Failed to process result file = {}", path.toFile().getName(), e);
         }
-        return Optional.empty();
+        return evalResults;
     };
 
     /**
-     * read all result file in the result directory. For each file, parse it back to
-     * spectrum object, then compute the evaluation metrics, and map it to an EvalResult containing the metrics,
+     * read all spectrum files in the result directory. For each file, read back its
+     * ranked spectra, then compute the evaluation metrics, and map each to an EvalResult containing the metrics,
      * finally, write that evalResult object to a single csv line in the output csv file.
      */
     private static void parse(String resultDir, String csvPath) {
@@ -406,7 +400,10 @@ public class ResultParser {
 
         try (var resultFiles = Files.list(Paths.get(resultDir))) {
 
-            var tasks = resultFiles.map(spectrumFileToEvalResult).toList();
+            var tasks = resultFiles
+                    .filter(path -> path.toString().endsWith("." + Constants.RESULT_FILE_TYPE))
+                    .map(spectrumFileToEvalResult)
+                    .toList();
 
             var csvContent = executorService.invokeAll(tasks)
                     .stream()
@@ -416,10 +413,9 @@ public class ResultParser {
                         } catch (Exception e) {
                             LOG.error("Failed to reduce results concurrently.", e);
                         }
-                        return Optional.<EvalResult>empty();
+                        return List.<EvalResult>of();
                     })
-                    .filter(Optional::isPresent)
-                    .map(Optional::get)
+                    .flatMap(List::stream)
                     .map(EvalResult::getCsvFormat)
                     .collect(Collectors.joining("\n"));
 
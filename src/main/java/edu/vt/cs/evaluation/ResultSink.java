@@ -0,0 +1,137 @@
+package edu.vt.cs.evaluation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Streams eval results to the csv and binary results files as they are produced, instead of keeping them all in
+ * memory. Producers hand over batches of results to a bounded queue, blocking when the single writer thread falls
+ * behind, so memory stays flat whatever the number of bugs.
+ */
+public class ResultSink implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final List<EvalResult> END_OF_RESULTS = new ArrayList<>(0);
+
+    private final BlockingQueue<List<EvalResult>> queue;
+
+    private final BufferedWriter csvWriter;
+
+    private final EvalResultsFile.Writer binWriter;
+
+    private final Thread writerThread;
+
+    private volatile IOException failure;
+
+    private volatile long count;
+
+    /**
+     * @param capacity maximum number of batches waiting to be written
+     */
+    public ResultSink(Path csvPath, Path binPath, int capacity) throws IOException {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.csvWriter = Files.newBufferedWriter(csvPath);
+        this.binWriter = new EvalResultsFile.Writer(binPath);
+        this.writerThread = new Thread(this::drain, "sbfl-result-sink");
+        this.writerThread.start();
+    }
+
+    /**
+     * Queue a batch of results to be written, waiting while the queue is full
+     */
+    public void accept(List<EvalResult> evalResults) {
+        if (evalResults.isEmpty()) {
+            return;
+        }
+        try {
+            queue.put(evalResults);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing results", e);
+        }
+    }
+
+    private void drain() {
+        try {
+            List<EvalResult> evalResults;
+            while ((evalResults = queue.take()) != END_OF_RESULTS) {
+                if (failure == null) {
+                    write(evalResults);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.error("Result sink interrupted, results after {} are lost", count);
+        }
+    }
+
+    /**
+     * Write a batch to both files. The csv lines are flushed before the binary block, so that the binary file is
+     * never older than the csv one and {@link ResultStore} can trust it. Any failure is kept for {@link #close()}
+     * and the following batches are dropped, the queue still being drained so that producers never block on a
+     * dead writer.
+     */
+    private void write(List<EvalResult> evalResults) {
+        try {
+            for (EvalResult evalResult : evalResults) {
+                if (count > 0) {
+                    csvWriter.write('\n');
+                }
+                csvWriter.write(evalResult.getCsvFormat());
+                count++;
+            }
+            csvWriter.flush();
+            binWriter.writeBlock(evalResults);
+        } catch (Throwable e) {
+            LOG.error("Failed to write results, dropping the following ones", e);
+            failure = e instanceof IOException ioException ? ioException : new IOException(e);
+        }
+    }
+
+    /**
+     * @return number of batches waiting to be written
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * @return number of results written so far, final once the sink is closed
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Wait for all queued results to be written, then close the files
+     * @throws IOException if any result could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (writerThread.isAlive()) {
+            try {
+                queue.put(END_OF_RESULTS);
+                writerThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while writing results", e);
+            }
+        }
+
+        try (csvWriter; binWriter) {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+}
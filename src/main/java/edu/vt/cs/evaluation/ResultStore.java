@@ -0,0 +1,160 @@
+package edu.vt.cs.evaluation;
+
+import edu.vt.cs.models.BugType;
+import edu.vt.cs.ranking.RankingAlgorithm;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Eval results of each bug type, read once from its binary results file, or parsed from its csv results file if
+ * there is no up-to-date binary one, then indexed by (ranking algorithm, triggering mode). The same scan aggregates
+ * the overall metrics of every reduction and every cell, see {@link ResultAggregate}.
+ * The file is only read again if it was modified since it was indexed, e.g. by a new evaluation. A binary file
+ * that cannot be read, e.g. one cut short by an interrupted evaluation, is replaced by the csv one.
+ */
+public class ResultStore {
+    private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private final Map<BugType, Index> indexes = new ConcurrentHashMap<>();
+
+    private final Function<BugType, Path> outputResultDir;
+
+    public ResultStore() {
+        this(bugType -> Paths.get(bugType.getOutputResultDir()));
+    }
+
+    /**
+     * @param outputResultDir directory of each bug type's results files
+     */
+    ResultStore(Function<BugType, Path> outputResultDir) {
+        this.outputResultDir = outputResultDir;
+    }
+
+    /**
+     * @return all results of a bug type, in file order
+     */
+    public List<EvalResult> getAll(BugType bugType) {
+        return index(bugType).all();
+    }
+
+    /**
+     * @return overall metrics of a bug type's results by every reduction and every (algorithm, mode) cell
+     */
+    public ResultAggregate getAggregate(BugType bugType) {
+        return index(bugType).aggregate();
+    }
+
+    /**
+     * @return results of all bugs of a bug type for one ranking algorithm and triggering mode, in file order
+     */
+    public List<EvalResult> get(BugType bugType, RankingAlgorithm rankingAlgorithm, TriggeringMode triggeringMode) {
+        return index(bugType).cell(rankingAlgorithm, triggeringMode);
+    }
+
+    private Index index(BugType bugType) {
+        try {
+            var path = resultsFile(bugType);
+            var lastModified = Files.getLastModifiedTime(path);
+            return indexes.compute(bugType, (type, index) -> index != null && index.lastModified().equals(lastModified)
+                    ? index
+                    : load(bugType, path, lastModified));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Index a results file, or the csv one if the binary one cannot be read. The index keeps the binary file's
+     * modification time then, so the binary file is not read again until it is rewritten.
+     */
+    private Index load(BugType bugType, Path path, FileTime lastModified) {
+        try {
+            return Index.load(path, lastModified);
+        } catch (IOException e) {
+            var csvPath = csvPath(bugType);
+            if (path.equals(csvPath) || Files.notExists(csvPath)) {
+                throw new RuntimeException(e);
+            }
+            LOG.warn("Cannot read results file {}, falling back to {}", path, csvPath, e);
+            try {
+                return Index.load(csvPath, lastModified);
+            } catch (IOException csvException) {
+                csvException.addSuppressed(e);
+                throw new RuntimeException(csvException);
+            }
+        }
+    }
+
+    /**
+     * @return the binary results file if it is at least as recent as the csv one, the csv one otherwise
+     */
+    private Path resultsFile(BugType bugType) throws IOException {
+        var csvPath = csvPath(bugType);
+        var binPath = outputResultDir.apply(bugType).resolve(bugType.getBinResultsFileName());
+        if (Files.exists(binPath) && (Files.notExists(csvPath)
+                || Files.getLastModifiedTime(binPath).compareTo(Files.getLastModifiedTime(csvPath)) >= 0)) {
+            return binPath;
+        }
+        return csvPath;
+    }
+
+    private Path csvPath(BugType bugType) {
+        return outputResultDir.apply(bugType).resolve(bugType.getCsvResultsFileName());
+    }
+
+    private record Index(FileTime lastModified, List<EvalResult> all, ResultAggregate aggregate,
+                         Map<RankingAlgorithm, Map<TriggeringMode, List<EvalResult>>> cells) {
+
+        List<EvalResult> cell(RankingAlgorithm rankingAlgorithm, TriggeringMode triggeringMode) {
+            return cells.getOrDefault(rankingAlgorithm, Map.of()).getOrDefault(triggeringMode, List.of());
+        }
+
+        static Index load(Path path, FileTime lastModified) throws IOException {
+            LOG.info("Indexing results in {}", path);
+
+            List<EvalResult> all = new ArrayList<>();
+            var aggregate = new ResultAggregate();
+            Map<RankingAlgorithm, Map<TriggeringMode, List<EvalResult>>> grouped = new EnumMap<>(RankingAlgorithm.class);
+            try (var evalResults = readResults(path)) {
+                evalResults.forEach(evalResult -> {
+                    all.add(evalResult);
+                    aggregate.accept(evalResult);
+                    grouped.computeIfAbsent(evalResult.getRankingAlgorithm(), a -> new EnumMap<>(TriggeringMode.class))
+                            .computeIfAbsent(evalResult.getTriggeringMode(), m -> new ArrayList<>())
+                            .add(evalResult);
+                });
+            }
+
+            Map<RankingAlgorithm, Map<TriggeringMode, List<EvalResult>>> cells = new EnumMap<>(RankingAlgorithm.class);
+            grouped.forEach((rankingAlgorithm, byMode) -> byMode.forEach((triggeringMode, results) ->
+                    cells.computeIfAbsent(rankingAlgorithm, a -> new EnumMap<>(TriggeringMode.class))
+                            .put(triggeringMode, List.copyOf(results))));
+
+            return new Index(lastModified, Collections.unmodifiableList(all), aggregate, cells);
+        }
+
+        private static Stream<EvalResult> readResults(Path path) throws IOException {
+            if (path.getFileName().toString().endsWith(".bin")) {
+                return EvalResultsFile.read(path).stream();
+            }
+            return Files.lines(path)
+                    .filter(line -> !line.isBlank())
+                    .map(EvalResult::parseLine);
+        }
+    }
+}
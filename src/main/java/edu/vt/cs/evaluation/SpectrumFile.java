@@ -0,0 +1,324 @@
+package edu.vt.cs.evaluation;
+
+import edu.vt.cs.models.Bug;
+import edu.vt.cs.models.ColumnarSpectrum;
+import edu.vt.cs.models.Constants;
+import edu.vt.cs.models.Entity;
+import edu.vt.cs.models.FqnTable;
+import edu.vt.cs.models.ImmutableBug;
+import edu.vt.cs.models.ImmutableEntity;
+import edu.vt.cs.models.ImmutableSpectrum;
+import edu.vt.cs.models.Project;
+import edu.vt.cs.models.Spectrum;
+import edu.vt.cs.ranking.RankingAlgorithm;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Binary intermediate files of ranked spectra, written by {@link Evaluator} when intermediate results are kept and
+ * read back by {@link ResultParser}. A bug's FQNs are written once, to its dictionary file, and each triggering mode
+ * of the bug has one spectrum file, holding the entities' counts once and then one section per ranking algorithm,
+ * appended as the algorithms rank. Entities are referred to by id, i.e. by line of the dictionary.
+ * Layout of a spectrum file, all big-endian:
+ * <pre>
+ * header: int magic, int version, int #projects, int #triggering modes, int #ranking algorithms
+ * byte project ordinal, int bug id, byte triggering mode ordinal, int total failed tests, int total passed tests
+ * int #locations, each location: int #bytes, UTF-8 bytes
+ * int n, int[n] failed tests, int[n] passed tests, indexed by entity id
+ * each section: byte algorithm ordinal, int #location ranks, int[] location ranks,
+ * int[n] entity ids from the highest to the lowest score, double[n] scores in the same order
+ * </pre>
+ * The dictionary file is the bug's FQNs as UTF-8 lines, memory-mapped as an {@link FqnTable} when read.
+ */
+public final class SpectrumFile {
+    private static final int MAGIC = 0x53424649;
+
+    private static final int VERSION = 1;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Size of the fixed part of the header, up to the number of locations: 9 ints and 2 ordinal bytes
+     */
+    private static final int HEADER_SIZE = 9 * Integer.BYTES + 2 * Byte.BYTES;
+
+    private SpectrumFile() {
+    }
+
+    /**
+     * @return path of the spectrum file of a bug's triggering mode in a directory
+     */
+    public static Path spectrumPath(Path dir, Bug bug, TriggeringMode triggeringMode) {
+        return dir.resolve(bug.getName() + "::" + triggeringMode.name() + "." + Constants.RESULT_FILE_TYPE);
+    }
+
+    /**
+     * @return path of the FQN dictionary of a bug in a directory
+     */
+    public static Path dictionaryPath(Path dir, Bug bug) {
+        return dir.resolve(bug.getName() + "." + Constants.FQN_DICTIONARY_FILE_TYPE);
+    }
+
+    /**
+     * Write the FQN dictionary shared by the spectrum files of a bug
+     * @return number of bytes written
+     */
+    public static long writeDictionary(Path path, FqnTable fqns) throws IOException {
+        var bytes = fqns.toBytes();
+        long size = bytes.remaining();
+        try (var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        }
+        return size;
+    }
+
+    public static FqnTable readDictionary(Path path) throws IOException {
+        return FqnTable.map(path);
+    }
+
+    /**
+     * Copy a ranking out of a spectrum's buffers, which the next ranking overwrites, so that it can be written later
+     * @param ranking entity ids from the highest to the lowest score, e.g. the spectrum's ranking buffer
+     * @param locationRanks ranks of the bug's locations in the ranking
+     */
+    public static Section section(RankingAlgorithm rankingAlgorithm, ColumnarSpectrum spectrum, int[] ranking,
+                                  List<Integer> locationRanks) {
+        int n = spectrum.size();
+        double[] scores = new double[n];
+        for (int i=0; i<n; i++) {
+            scores[i] = spectrum.getScores()[ranking[i]];
+        }
+        return new Section(rankingAlgorithm, Arrays.copyOf(ranking, n), scores, locationRanks);
+    }
+
+    /**
+     * Ranking of a spectrum by an algorithm, as stored in a spectrum file
+     */
+    public record Section(RankingAlgorithm rankingAlgorithm, int[] ranking, double[] scores,
+                          List<Integer> locationRanks) {
+    }
+
+    /**
+     * Appends the sections of a spectrum to its file through a fixed buffer. The file is created, with the header,
+     * on the first section, so that a writer can be made on a ranking thread and only used on an I/O thread.
+     * A writer is not thread-safe: sections must be written one at a time.
+     */
+    public static final class Writer implements AutoCloseable {
+        private final Path path;
+
+        private final ColumnarSpectrum spectrum;
+
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        private FileChannel channel;
+
+        private long bytesWritten;
+
+        public Writer(Path path, ColumnarSpectrum spectrum) {
+            this.path = path;
+            this.spectrum = spectrum;
+        }
+
+        public void writeSection(Section section) throws IOException {
+            if (channel == null) {
+                channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING);
+                writeHeader();
+            }
+
+            reserve(Byte.BYTES + Integer.BYTES).put((byte) section.rankingAlgorithm().ordinal())
+                    .putInt(section.locationRanks().size());
+            for (int rank : section.locationRanks()) {
+                reserve(Integer.BYTES).putInt(rank);
+            }
+            putInts(section.ranking());
+            putDoubles(section.scores());
+            flush();
+        }
+
+        private void writeHeader() throws IOException {
+            var bug = spectrum.getBug();
+            reserve(HEADER_SIZE)
+                    .putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putInt(Project.values().length)
+                    .putInt(TriggeringMode.values().length)
+                    .putInt(RankingAlgorithm.values().length)
+                    .put((byte) bug.getProject().ordinal())
+                    .putInt(bug.getBugId())
+                    .put((byte) spectrum.getTriggeringMode().ordinal())
+                    .putInt(spectrum.getTotalOfFailedTests())
+                    .putInt(spectrum.getTotalOfPassedTests())
+                    .putInt(bug.getLocations().size());
+            for (String location : bug.getLocations()) {
+                byte[] bytes = location.getBytes(StandardCharsets.UTF_8);
+                reserve(Integer.BYTES).putInt(bytes.length);
+                for (int i=0; i<bytes.length; i+=BUFFER_SIZE) {
+                    int k = Math.min(BUFFER_SIZE, bytes.length - i);
+                    reserve(k).put(bytes, i, k);
+                }
+            }
+            reserve(Integer.BYTES).putInt(spectrum.size());
+            putInts(spectrum.getFailedTests());
+            putInts(spectrum.getPassedTests());
+        }
+
+        private void putInts(int[] values) throws IOException {
+            for (int i=0; i<values.length; ) {
+                int k = Math.min(values.length - i, reserve(Integer.BYTES).remaining() / Integer.BYTES);
+                buffer.asIntBuffer().put(values, i, k);
+                buffer.position(buffer.position() + k * Integer.BYTES);
+                i += k;
+            }
+        }
+
+        private void putDoubles(double[] values) throws IOException {
+            for (int i=0; i<values.length; ) {
+                int k = Math.min(values.length - i, reserve(Double.BYTES).remaining() / Double.BYTES);
+                buffer.asDoubleBuffer().put(values, i, k);
+                buffer.position(buffer.position() + k * Double.BYTES);
+                i += k;
+            }
+        }
+
+        /**
+         * @return the buffer, with at least the given number of bytes remaining
+         */
+        private ByteBuffer reserve(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+            return buffer;
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                bytesWritten += channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        /**
+         * @return number of bytes written to the file so far
+         */
+        public long getBytesWritten() {
+            return bytesWritten;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (channel != null) {
+                try (var channel = this.channel) {
+                    flush();
+                }
+            }
+        }
+    }
+
+    /**
+     * Read the ranked spectra of a spectrum file, one per section, in section order. Each spectrum carries the ranks
+     * of the bug's locations, so its metrics need no ranked list.
+     * @param dictionary the bug's FQNs, to build each spectrum's full ranked list, or null to build none
+     */
+    public static List<Spectrum> read(Path path, FqnTable dictionary) throws IOException {
+        ByteBuffer buffer;
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.remaining() < 5 * Integer.BYTES || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException("Not a spectrum file of version " + VERSION + ": " + path);
+        }
+        if (buffer.getInt() != Project.values().length || buffer.getInt() != TriggeringMode.values().length
+                || buffer.getInt() != RankingAlgorithm.values().length) {
+            throw new IOException("Spectrum file " + path + " was written with different projects, modes or algorithms");
+        }
+
+        var project = Project.values()[buffer.get()];
+        int bugId = buffer.getInt();
+        var triggeringMode = TriggeringMode.values()[buffer.get()];
+        int totalOfFailedTests = buffer.getInt();
+        int totalOfPassedTests = buffer.getInt();
+
+        int numberOfLocations = buffer.getInt();
+        List<String> locations = new ArrayList<>(numberOfLocations);
+        for (int l=0; l<numberOfLocations; l++) {
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            locations.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        Bug bug = ImmutableBug.of(project, bugId, locations);
+
+        int n = buffer.getInt();
+        if (dictionary != null && dictionary.size() < n) {
+            throw new IOException("Dictionary of bug = " + bug.getName() + " has " + dictionary.size()
+                    + " FQNs, spectrum file " + path + " has " + n + " entities");
+        }
+        int[] failedTests = getInts(buffer, n);
+        int[] passedTests = getInts(buffer, n);
+
+        var spectrum = ImmutableSpectrum.builder()
+                .bug(bug)
+                .project(project)
+                .triggeringMode(triggeringMode)
+                .totalOfFailedTests(totalOfFailedTests)
+                .totalOfPassedTests(totalOfPassedTests)
+                .build();
+
+        List<Spectrum> spectra = new ArrayList<>(RankingAlgorithm.values().length);
+        while (buffer.hasRemaining()) {
+            var rankingAlgorithm = RankingAlgorithm.values()[buffer.get()];
+            Integer[] locationRanks = new Integer[buffer.getInt()];
+            for (int l=0; l<locationRanks.length; l++) {
+                locationRanks[l] = buffer.getInt();
+            }
+
+            List<Entity> rankedList = null;
+            if (dictionary == null) {
+                buffer.position(buffer.position() + n * (Integer.BYTES + Double.BYTES));
+            } else {
+                int[] ranking = getInts(buffer, n);
+                double[] scores = new double[n];
+                buffer.asDoubleBuffer().get(scores);
+                buffer.position(buffer.position() + n * Double.BYTES);
+
+                rankedList = new ArrayList<>(n);
+                for (int i=0; i<n; i++) {
+                    int id = ranking[i];
+                    rankedList.add(ImmutableEntity.of(id, dictionary.get(id), failedTests[id], passedTests[id],
+                            scores[i]));
+                }
+            }
+
+            spectra.add(ImmutableSpectrum.copyOf(spectrum)
+                    .withRankingAlgorithm(rankingAlgorithm)
+                    .withRankedEntitiesList(rankedList)
+                    .withLocationRanks(Arrays.asList(locationRanks)));
+        }
+
+        return spectra;
+    }
+
+    private static int[] getInts(ByteBuffer buffer, int n) {
+        int[] values = new int[n];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + n * Integer.BYTES);
+        return values;
+    }
+}
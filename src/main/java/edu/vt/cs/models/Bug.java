@@ -23,8 +23,28 @@ public interface Bug {
     @Value.Parameter
     List<String> getLocations();
 
+    /**
+     * FQNs of the spectrum entities of the bug's locations, in location order, see {@link #toFQN}.
+     * Normalized once, when the bug is built or deserialized, and used for every spectrum of the bug.
+     */
+    @Value.Derived
+    @Value.Redacted
+    @JsonIgnore
+    default List<String> getLocationFqns() {
+        return getLocations().stream().map(Bug::toFQN).toList();
+    }
+
     @JsonIgnore
     default String getName() {
         return getProject().name() + "::" + getBugId();
     }
+
+    /**
+     * Turn a ground-truth location, e.g. "org/joda/time/Partial.java#221#  code", into the FQN of its spectrum
+     * entity, e.g. "org.joda.time.Partial#221"
+     */
+    static String toFQN(String location) {
+        int end = location.lastIndexOf('#');
+        return (end >= 0 ? location.substring(0, end).replace('/', '.') : location).trim().replace(".java", "");
+    }
 }
@@ -0,0 +1,212 @@
+package edu.vt.cs.models;
+
+import edu.vt.cs.evaluation.TriggeringMode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Column-oriented spectrum of a program snapshot: column i holds the failed/passed test counts of the entity with id i.
+ * FQNs live in a {@link FqnTable} shared by every spectrum of the same bug, and the spectrum carries reusable score and
+ * ranking buffers, so an instance can be scored and sorted by every ranking algorithm without allocating per entity.
+ * The buffers are only allocated when the spectrum is first ranked, so spectra waiting to be ranked hold their counts
+ * only. Because of those buffers an instance must only be ranked by one thread at a time.
+ */
+public final class ColumnarSpectrum {
+    private final Bug bug;
+
+    private final TriggeringMode triggeringMode;
+
+    private final int[] failedTests;
+
+    private final int[] passedTests;
+
+    private final int totalOfFailedTests;
+
+    private final int totalOfPassedTests;
+
+    private final FqnTable fqns;
+
+    private double[] scores;
+
+    private int[] ranking;
+
+    private int[] rankingBuffer;
+
+    private volatile int[][] locationIds;
+
+    public ColumnarSpectrum(Bug bug, TriggeringMode triggeringMode, int[] failedTests, int[] passedTests,
+                            int totalOfFailedTests, int totalOfPassedTests, List<String> fqns) {
+        this(bug, triggeringMode, failedTests, passedTests, totalOfFailedTests, totalOfPassedTests, FqnTable.of(fqns));
+    }
+
+    public ColumnarSpectrum(Bug bug, TriggeringMode triggeringMode, int[] failedTests, int[] passedTests,
+                            int totalOfFailedTests, int totalOfPassedTests, FqnTable fqns) {
+        if (failedTests.length != passedTests.length || failedTests.length > fqns.size()) {
+            throw new IllegalArgumentException("Columns of " + failedTests.length + "/" + passedTests.length
+                    + " entities do not match a table of " + fqns.size() + " FQNs");
+        }
+        this.bug = bug;
+        this.triggeringMode = triggeringMode;
+        this.failedTests = failedTests;
+        this.passedTests = passedTests;
+        this.totalOfFailedTests = totalOfFailedTests;
+        this.totalOfPassedTests = totalOfPassedTests;
+        this.fqns = fqns;
+    }
+
+    public static ColumnarSpectrum empty(Bug bug, TriggeringMode triggeringMode) {
+        return new ColumnarSpectrum(bug, triggeringMode, new int[0], new int[0], 0, 0, FqnTable.empty());
+    }
+
+    /**
+     * Convert an entity-based spectrum, whose entities must have ids 0..n-1
+     */
+    public static ColumnarSpectrum from(Spectrum spectrum) {
+        var entities = spectrum.getEntities() == null ? List.<Entity>of() : spectrum.getEntities();
+        int n = entities.size();
+        int[] failedTests = new int[n];
+        int[] passedTests = new int[n];
+        String[] fqns = new String[n];
+
+        for (Entity entity : entities) {
+            int id = entity.getId();
+            if (id < 0 || id >= n || fqns[id] != null) {
+                throw new IllegalArgumentException("Entity ids of spectrum " + spectrum.getName() + " are not 0.." + (n - 1));
+            }
+            failedTests[id] = entity.getNumberOfFailedTests();
+            passedTests[id] = entity.getNumberOfPassedTests();
+            fqns[id] = entity.getFQN();
+        }
+
+        return new ColumnarSpectrum(spectrum.getBug(), spectrum.getTriggeringMode(), failedTests, passedTests,
+                spectrum.getTotalOfFailedTests(), spectrum.getTotalOfPassedTests(), List.of(fqns));
+    }
+
+    public Spectrum toSpectrum() {
+        if (isEmpty()) {
+            return Spectrum.getEmptySpectrum(bug, triggeringMode);
+        }
+
+        List<Entity> entities = new ArrayList<>(size());
+        for (int i=0; i<size(); i++) {
+            entities.add(ImmutableEntity.of(i, fqns.get(i), failedTests[i], passedTests[i], null));
+        }
+
+        return ImmutableSpectrum.builder()
+                .bug(bug)
+                .triggeringMode(triggeringMode)
+                .project(bug.getProject())
+                .entities(entities)
+                .totalOfFailedTests(totalOfFailedTests)
+                .totalOfPassedTests(totalOfPassedTests)
+                .build();
+    }
+
+    public Bug getBug() {
+        return bug;
+    }
+
+    public Project getProject() {
+        return bug.getProject();
+    }
+
+    public TriggeringMode getTriggeringMode() {
+        return triggeringMode;
+    }
+
+    /**
+     * Number of entities
+     */
+    public int size() {
+        return failedTests.length;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Number of failed tests that cover each entity, indexed by entity id. Must not be modified.
+     */
+    public int[] getFailedTests() {
+        return failedTests;
+    }
+
+    /**
+     * Number of passed tests that cover each entity, indexed by entity id. Must not be modified.
+     */
+    public int[] getPassedTests() {
+        return passedTests;
+    }
+
+    public int getTotalOfFailedTests() {
+        return totalOfFailedTests;
+    }
+
+    public int getTotalOfPassedTests() {
+        return totalOfPassedTests;
+    }
+
+    public FqnTable getFqns() {
+        return fqns;
+    }
+
+    public String getFqn(int id) {
+        return fqns.get(id);
+    }
+
+    /**
+     * Score buffer indexed by entity id, overwritten by every ranking
+     */
+    public double[] getScores() {
+        if (scores == null) {
+            scores = new double[size()];
+        }
+        return scores;
+    }
+
+    /**
+     * Ranking buffer: entity ids from the highest to the lowest score, overwritten by every ranking
+     */
+    public int[] getRanking() {
+        if (ranking == null) {
+            ranking = new int[size()];
+        }
+        return ranking;
+    }
+
+    /**
+     * Scratch buffer used while sorting the ranking
+     */
+    public int[] getRankingBuffer() {
+        if (rankingBuffer == null) {
+            rankingBuffer = new int[size()];
+        }
+        return rankingBuffer;
+    }
+
+    /**
+     * Ids of the entities matching each of the bug's locations, in location order (no id if a location is not
+     * in the spectrum). Located once in the bug's FQN table and shared by every spectrum and ranking algorithm.
+     */
+    public int[][] getLocationIds() {
+        if (locationIds == null) {
+            var tableIds = fqns.locate(bug.getLocationFqns());
+            locationIds = size() == fqns.size()
+                    ? tableIds
+                    : Stream.of(tableIds)
+                            .map(ids -> IntStream.of(ids).filter(id -> id < size()).toArray())
+                            .toArray(int[][]::new);
+        }
+        return locationIds;
+    }
+
+    public String getName() {
+        return bug.getProject().name() + "::"
+                + bug.getBugId() + "::"
+                + (triggeringMode == null ? "Not Set" : triggeringMode.name());
+    }
+}
@@ -32,20 +32,26 @@ public class Constants {
 
     public static final String RESULT_REAL_BY_BUG_CSV = "data/csv/results/real/real_reduced_by_bug.csv";
     public static final String RESULT_ARTIFICIAL_BY_BUG_CSV = "data/csv/results/artificial/artificial_reduced_by_bug.csv";
-    public static final String RESULT_FILE_TYPE = "json";
+    public static final String RESULT_FILE_TYPE = "spectrum";
+    public static final String FQN_DICTIONARY_FILE_TYPE = "fqns";
 
     public static final String REAL_INPUT_BUGS_DIR = "data/multi-bugs/all_real_bugs.json";
     public static final String REAL_BUGS_RESUL_DIR = "data/csv/results/real";
     public static final String REAL_BUGS_SPECTRUM_DIR = "data/spectrum/real";
     public static final String CSV_RESULTS_OF_REAL_BUGS_FILE_NAME = "real-bug-results.csv";
+    public static final String BIN_RESULTS_OF_REAL_BUGS_FILE_NAME = "real-bug-results.bin";
     public static final String REAL_TESTS_COUNT_DIR = "data/csv/results/tests_executed_pct/real";
 
     public static final String ARTIFICIAL_INPUT_BUGS_DIR = "data/multi-bugs/all_artificial_bugs.json";
     public static final String ARTIFICIAL_BUGS_RESULT_DIR = "data/csv/results/artificial";
     public static final String ARTIFICIAL_BUGS_SPECTRUM_DIR = "data/spectrum/artificial";
     public static final String CSV_RESULTS_OF_ARTIFICIAL_BUGS_FILE_NAME = "artificial-bug-results.csv";
+    public static final String BIN_RESULTS_OF_ARTIFICIAL_BUGS_FILE_NAME = "artificial-bug-results.bin";
 
     public static final String CSV_TABLES_DIR = "data/csv/results/tables";
+    public static final String CHECKPOINT_FILE_NAME = "checkpoint.log";
+    public static final String STATS_FILE_NAME = "evaluation-stats.json";
+    public static final String SPECTRUM_CACHE_DIR = "data/cache/spectra";
     public static final String ARTIFICIAL_TESTS_COUNT_DIR = "data/csv/results/tests_executed_pct/artificial";
 
 }
@@ -0,0 +1,151 @@
+package edu.vt.cs.models;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Bit-packed coverage matrix of a program snapshot, one row per executed test.
+ * Row i is a bitset over locations (bit j set if test i covers location j), and test outcomes are kept
+ * in a separate failed-test bitmap. A prefix of the matrix is a view sharing the same rows.
+ */
+public final class CoverageMatrix {
+    private final long[][] rows;
+
+    private final long[] failedTests;
+
+    private final int numberOfTests;
+
+    private final int numberOfLocations;
+
+    private CoverageMatrix(long[][] rows, long[] failedTests, int numberOfTests, int numberOfLocations) {
+        this.rows = rows;
+        this.failedTests = failedTests;
+        this.numberOfTests = numberOfTests;
+        this.numberOfLocations = numberOfLocations;
+    }
+
+    public static Builder builder(int numberOfLocations) {
+        return new Builder(numberOfLocations);
+    }
+
+    public int getNumberOfTests() {
+        return numberOfTests;
+    }
+
+    /**
+     * Total locations in a program snapshot is the same for each test
+     */
+    public int getNumberOfLocations() {
+        return numberOfLocations;
+    }
+
+    public boolean isEmpty() {
+        return numberOfTests == 0;
+    }
+
+    public boolean isCovered(int test, int location) {
+        return (rows[test][location >>> 6] & (1L << location)) != 0;
+    }
+
+    public boolean isFailed(int test) {
+        return (failedTests[test >>> 6] & (1L << test)) != 0;
+    }
+
+    public Result getResult(int test) {
+        return isFailed(test) ? Result.Failed : Result.Passed;
+    }
+
+    public int getNumberOfFailedTests() {
+        int count = 0;
+        int fullWords = numberOfTests >>> 6;
+        for (int w=0; w<fullWords; w++) {
+            count += Long.bitCount(failedTests[w]);
+        }
+        int rest = numberOfTests & 63;
+        if (rest != 0) {
+            count += Long.bitCount(failedTests[fullWords] & ((1L << rest) - 1));
+        }
+        return count;
+    }
+
+    public int getNumberOfPassedTests() {
+        return numberOfTests - getNumberOfFailedTests();
+    }
+
+    /**
+     * Visit every location covered by a test, in ascending order
+     */
+    public void forEachCoveredLocation(int test, IntConsumer consumer) {
+        long[] row = rows[test];
+        for (int w=0; w<row.length; w++) {
+            long word = row[w];
+            while (word != 0) {
+                consumer.accept((w << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+    }
+
+    /**
+     * @return a view over the first n tests of this matrix, without copying any row
+     */
+    public CoverageMatrix prefix(int n) {
+        if (n < 0 || n > numberOfTests) {
+            throw new IndexOutOfBoundsException("Prefix of " + n + " tests, but matrix has " + numberOfTests);
+        }
+        return n == numberOfTests ? this : new CoverageMatrix(rows, failedTests, n, numberOfLocations);
+    }
+
+    public static final class Builder {
+        private final int numberOfLocations;
+
+        private final int wordsPerRow;
+
+        private long[][] rows = new long[16][];
+
+        private long[] failedTests = new long[1];
+
+        private int numberOfTests;
+
+        private Builder(int numberOfLocations) {
+            this.numberOfLocations = numberOfLocations;
+            this.wordsPerRow = (numberOfLocations + 63) >>> 6;
+        }
+
+        public int getNumberOfLocations() {
+            return numberOfLocations;
+        }
+
+        /**
+         * @return an empty row bitset sized for this matrix, to be filled and passed to {@link #addTest}
+         */
+        public long[] newRow() {
+            return new long[wordsPerRow];
+        }
+
+        /**
+         * Append a test. The row is kept as-is (not copied), so the caller must not reuse it.
+         */
+        public Builder addTest(long[] row, Result result) {
+            if (row.length != wordsPerRow) {
+                throw new IllegalArgumentException("Row has " + row.length + " words, expected " + wordsPerRow);
+            }
+            if (numberOfTests == rows.length) {
+                rows = Arrays.copyOf(rows, rows.length * 2);
+            }
+            if ((numberOfTests >>> 6) == failedTests.length) {
+                failedTests = Arrays.copyOf(failedTests, failedTests.length * 2);
+            }
+            if (result == Result.Failed) {
+                failedTests[numberOfTests >>> 6] |= 1L << numberOfTests;
+            }
+            rows[numberOfTests++] = row;
+            return this;
+        }
+
+        public CoverageMatrix build() {
+            return new CoverageMatrix(Arrays.copyOf(rows, numberOfTests), failedTests, numberOfTests,
+                    numberOfLocations);
+        }
+    }
+}
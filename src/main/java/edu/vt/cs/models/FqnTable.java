@@ -0,0 +1,187 @@
+package edu.vt.cs.models;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * FQNs of a bug's entities, indexed by entity id, shared by every spectrum of the bug.
+ * A table is usually a memory-mapped gzoltar spectra file (one FQN per line): only line offsets are read up front,
+ * and a FQN is decoded the first time it is asked for, e.g. when a ranked list is written, then kept so that every
+ * ranked copy shares the same String. Ground-truth locations are matched against the table once, by id.
+ */
+public final class FqnTable extends AbstractList<String> implements RandomAccess {
+    private static final FqnTable EMPTY = new FqnTable(null, new int[] {0}, new String[0]);
+
+    private final ByteBuffer bytes;
+
+    /**
+     * FQN i spans bytes [starts[i], ends(i)), ends(i) being starts[i + 1] minus its line terminator
+     */
+    private final int[] starts;
+
+    private final String[] names;
+
+    private volatile Located located;
+
+    private FqnTable(ByteBuffer bytes, int[] starts, String[] names) {
+        this.bytes = bytes;
+        this.starts = starts;
+        this.names = names;
+    }
+
+    public static FqnTable empty() {
+        return EMPTY;
+    }
+
+    public static FqnTable of(List<String> fqns) {
+        return fqns instanceof FqnTable table ? table : new FqnTable(null, null, fqns.toArray(String[]::new));
+    }
+
+    /**
+     * Memory-map a spectra file, whose lines are the FQNs of entity 0, 1, ...
+     */
+    public static FqnTable map(Path spectraPath) throws IOException {
+        try (var channel = FileChannel.open(spectraPath, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Spectra file is too large to map: " + spectraPath);
+            }
+            return of(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * @param bytes lines of UTF-8 FQNs, from its position to its limit; a last line without terminator counts
+     */
+    public static FqnTable of(ByteBuffer bytes) {
+        var lines = bytes.slice();
+        int size = lines.remaining();
+        int[] starts = new int[Math.max(16, size / 32)];
+        int n = 0;
+        int start = 0;
+        for (int i=0; i<size; i++) {
+            if (lines.get(i) == '\n') {
+                if (n + 1 >= starts.length) {
+                    starts = Arrays.copyOf(starts, starts.length * 2);
+                }
+                starts[n++] = start;
+                start = i + 1;
+            }
+        }
+        if (start < size) {
+            if (n + 1 >= starts.length) {
+                starts = Arrays.copyOf(starts, starts.length + 1);
+            }
+            starts[n++] = start;
+            start = size + 1;
+        }
+        starts[n] = start;
+        return new FqnTable(lines, Arrays.copyOf(starts, n + 1), new String[n]);
+    }
+
+    @Override
+    public int size() {
+        return names.length;
+    }
+
+    @Override
+    public String get(int id) {
+        var name = names[id];
+        if (name == null) {
+            // racing threads decode equal Strings, either may be kept
+            name = new String(encoded(id), StandardCharsets.UTF_8);
+            names[id] = name;
+        }
+        return name;
+    }
+
+    /**
+     * UTF-8 bytes of the table, one FQN per line, e.g. to store it elsewhere and map it again with {@link #of}
+     */
+    public ByteBuffer toBytes() {
+        if (bytes != null) {
+            return bytes.duplicate();
+        }
+        return ByteBuffer.wrap(String.join("\n", this).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Ids of the entities matching each location, in location order (no id if a location is not in the table).
+     * Only FQNs as long as some location's are decoded. The result of the last locations is kept, since a table
+     * is shared by the spectra of one bug.
+     * @param locationFqns FQNs of the locations, see {@link Bug#getLocationFqns()}
+     */
+    public int[][] locate(List<String> locationFqns) {
+        var last = located;
+        if (last != null && last.locationFqns().equals(locationFqns)) {
+            return last.ids();
+        }
+
+        Map<String, List<Integer>> fqnToLocations = new HashMap<>();
+        Set<Integer> lengths = new HashSet<>();
+        for (int l=0; l<locationFqns.size(); l++) {
+            var fqn = locationFqns.get(l);
+            fqnToLocations.computeIfAbsent(fqn, f -> new ArrayList<>()).add(l);
+            lengths.add(bytes == null ? fqn.length() : fqn.getBytes(StandardCharsets.UTF_8).length);
+        }
+
+        List<List<Integer>> ids = new ArrayList<>(locationFqns.size());
+        for (int l=0; l<locationFqns.size(); l++) {
+            ids.add(new ArrayList<>(1));
+        }
+
+        for (int id=0; id<size(); id++) {
+            if (!lengths.contains(length(id))) {
+                continue;
+            }
+            var matchingLocations = fqnToLocations.get(get(id));
+            if (matchingLocations != null) {
+                for (int l : matchingLocations) {
+                    ids.get(l).add(id);
+                }
+            }
+        }
+
+        var located = ids.stream()
+                .map(l -> l.stream().mapToInt(Integer::intValue).toArray())
+                .toArray(int[][]::new);
+        this.located = new Located(List.copyOf(locationFqns), located);
+        return located;
+    }
+
+    /**
+     * @return length of FQN id in the unit location lengths are compared in: bytes if mapped, chars otherwise
+     */
+    private int length(int id) {
+        return bytes == null ? names[id].length() : end(id) - starts[id];
+    }
+
+    private int end(int id) {
+        int end = starts[id + 1] - 1;
+        if (end > starts[id] && bytes.get(end - 1) == '\r') {
+            end--;
+        }
+        return end;
+    }
+
+    private byte[] encoded(int id) {
+        byte[] encoded = new byte[end(id) - starts[id]];
+        bytes.get(starts[id], encoded);
+        return encoded;
+    }
+
+    private record Located(List<String> locationFqns, int[][] ids) {
+    }
+}
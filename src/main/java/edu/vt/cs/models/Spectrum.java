@@ -4,10 +4,10 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
-import edu.vt.cs.evaluation.ImmutableMetrics;
 import edu.vt.cs.evaluation.Metrics;
 import edu.vt.cs.evaluation.TriggeringMode;
 import edu.vt.cs.ranking.RankingAlgorithm;
+import edu.vt.cs.utils.ComputeEvent;
 import org.immutables.value.Value;
 
 import javax.annotation.Nullable;
@@ -51,6 +51,14 @@ public interface Spectrum {
     @Nullable
     List<Entity> getRankedEntitiesList();
 
+    /**
+     * Exact ranks of the bug's locations, sorted ascending, when ranked without materializing the full ranked list
+     * (then the ranked list, if any, only holds the top entities)
+     */
+    @Value.Parameter
+    @Nullable
+    List<Integer> getLocationRanks();
+
     @Value.Parameter
     @Value.Default
     default boolean getIsEmpty() {
@@ -78,68 +86,42 @@ public interface Spectrum {
                 + (getRankingAlgorithm() == null ? "Not set" : getRankingAlgorithm().name());
     }
 
+    /**
+     * Metrics of the ranking. Spectra ranked by {@link edu.vt.cs.ranking.Ranker} carry the ranks of the bug's
+     * locations, found by entity id; otherwise, e.g. for a spectrum read back from a file, the ranked list is scanned
+     * for the locations' FQNs, a location matching several entities taking the worst of their ranks.
+     * Emits a {@link ComputeEvent}.
+     */
     @JsonIgnore
     default Metrics compute() {
-        Map<String, Integer> rankingMap = new HashMap<>();
+        var event = new ComputeEvent();
+        event.begin();
+        var metrics = computeMetrics();
+        event.commit(getBug(), getTriggeringMode(), getRankingAlgorithm(),
+                getRankedEntitiesList() == null ? 0 : getRankedEntitiesList().size(), getTotalExecutedTests());
+        return metrics;
+    }
 
-        for (int i=0; i<getRankedEntitiesList().size(); i++) {
-            var fqn = getRankedEntitiesList().get(i).getFQN();
-            rankingMap.put(fqn, i + 1);
+    private Metrics computeMetrics() {
+        if (getLocationRanks() != null) {
+            return Metrics.fromRanks(getLocationRanks());
         }
 
-        int top1 = 0;
-        int top5 = 0;
-        int top10 = 0;
-        double map = 0;
-        double mrr = 0;
-
-        var ranks = getBug().getLocations()
-                .stream()
-                .map(l -> {
-                    var fqn = (l.contains("#")
-                            ? l.substring(0, l.lastIndexOf('#')).replaceAll("/", ".")
-                            : l).trim().replace(".java", "");
-                    return fqn;
-                })
-                .map(l -> rankingMap.getOrDefault(l, Integer.MAX_VALUE))
-                .sorted()
-                .toList();
-
-        int pos = (int) ranks.stream().filter(rank -> rank < Integer.MAX_VALUE).count();
+        var locationFqns = getBug().getLocationFqns();
+        Map<String, Integer> rankByLocation = new HashMap<>();
+        locationFqns.forEach(fqn -> rankByLocation.put(fqn, Integer.MAX_VALUE));
 
-        int pk = 0;
-
-        for (int k=1; k<=ranks.size(); k++) {
-            int rank = ranks.get(k-1);
-
-            if (rank <= 10) {
-                top10++;
-                if (rank <= 5) {
-                    top5++;
-                    if (rank == 1) {
-                        top1++;
-                    }
-                }
-            }
-
-            if (rank < Integer.MAX_VALUE) {
-                pk++;
-                map += ((double) pk) / rank;
-            }
+        var rankedEntities = getRankedEntitiesList();
+        for (int i=0; i<rankedEntities.size(); i++) {
+            rankByLocation.replace(rankedEntities.get(i).getFQN(), i + 1);
         }
 
-        map = pos == 0 ? 0 : map / pos;
-
-        mrr = ((double) 1) / ranks.get(0);
+        var ranks = locationFqns.stream()
+                .map(rankByLocation::get)
+                .sorted()
+                .toList();
 
-        return ImmutableMetrics.builder()
-                .top1(top1)
-                .top5(top5)
-                .top10(top10)
-                .map(map)
-                .mrr(mrr)
-                .ranks(ranks)
-                .build();
+        return Metrics.fromRanks(ranks);
     }
 
     @JsonIgnore
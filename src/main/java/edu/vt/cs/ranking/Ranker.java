@@ -1,39 +1,203 @@
 package edu.vt.cs.ranking;
 
+import edu.vt.cs.models.ColumnarSpectrum;
+import edu.vt.cs.models.Entity;
 import edu.vt.cs.models.ImmutableEntity;
 import edu.vt.cs.models.ImmutableSpectrum;
 import edu.vt.cs.models.Spectrum;
+import edu.vt.cs.utils.RankEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.invoke.MethodHandles;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 public class Ranker implements Ranking {
     private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
-    @SuppressWarnings("ConstantConditions")
+    /**
+     * Representatives of the rank-equivalence classes having more than one algorithm
+     */
+    private static final Set<RankingAlgorithm> SHARED_CLASSES = Stream.of(RankingAlgorithm.values())
+            .filter(rankingAlgorithm -> rankingAlgorithm.getRankRepresentative() != rankingAlgorithm)
+            .map(RankingAlgorithm::getRankRepresentative)
+            .collect(Collectors.toCollection(() -> EnumSet.noneOf(RankingAlgorithm.class)));
+
     @Override
     public Spectrum rank(RankingAlgorithm rankingAlgorithm, Spectrum spectrum) {
-        var rankedList = spectrum.getEntities()
-                .stream()
-                .map(entity -> ImmutableEntity.copyOf(entity)
-                        .withScore(SpVector.from(entity, spectrum).toScore(rankingAlgorithm)))
-                .sorted(Comparator.comparingDouble(ImmutableEntity::getScore).reversed())
+        return rank(rankingAlgorithm, spectrum, ColumnarSpectrum.from(spectrum));
+    }
+
+    /**
+     * Algorithms of a rank-equivalence class share one sort: the first member is sorted, and the others reuse its
+     * ordering once an O(n) check confirms that their own scores are in that order (they are sorted otherwise,
+     * e.g. if rounding made two scores tie for one formula but not for the other)
+     */
+    @Override
+    public List<Spectrum> rankAll(Spectrum spectrum) {
+        var columnarSpectrum = ColumnarSpectrum.from(spectrum);
+        Map<RankingAlgorithm, int[]> classRankings = new EnumMap<>(RankingAlgorithm.class);
+        return Stream.of(RankingAlgorithm.values())
+                .map(rankingAlgorithm -> ranked(rankingAlgorithm, spectrum,
+                        rank(rankingAlgorithm, columnarSpectrum, classRankings), columnarSpectrum))
                 .collect(Collectors.toList());
+    }
+
+    @Override
+    public Spectrum rank(RankingAlgorithm rankingAlgorithm, Spectrum spectrum, int topK) {
+        return rank(rankingAlgorithm, spectrum, ColumnarSpectrum.from(spectrum), topK);
+    }
+
+    @Override
+    public List<Integer> rankLocations(RankingAlgorithm rankingAlgorithm, ColumnarSpectrum spectrum) {
+        var event = new RankEvent();
+        event.begin();
+        score(rankingAlgorithm, spectrum);
+        var locationRanks = locationRanks(spectrum);
+        commit(event, rankingAlgorithm, spectrum);
+        return locationRanks;
+    }
+
+    @Override
+    public int[] rank(RankingAlgorithm rankingAlgorithm, ColumnarSpectrum spectrum) {
+        var event = new RankEvent();
+        event.begin();
+        int[] ranking = sort(rankingAlgorithm, spectrum);
+        commit(event, rankingAlgorithm, spectrum);
+        return ranking;
+    }
+
+    @Override
+    public int[] rank(RankingAlgorithm rankingAlgorithm, ColumnarSpectrum spectrum,
+                      Map<RankingAlgorithm, int[]> classRankings) {
+        var event = new RankEvent();
+        event.begin();
+        int[] ranking = sort(rankingAlgorithm, spectrum, classRankings);
+        commit(event, rankingAlgorithm, spectrum);
+        return ranking;
+    }
+
+    private static int[] sort(RankingAlgorithm rankingAlgorithm, ColumnarSpectrum spectrum) {
+        score(rankingAlgorithm, spectrum);
+        RankingSort.sortDescending(spectrum.getScores(), spectrum.getRanking(), spectrum.getRankingBuffer(),
+                spectrum.size());
+        return spectrum.getRanking();
+    }
+
+    private static int[] sort(RankingAlgorithm rankingAlgorithm, ColumnarSpectrum spectrum,
+                              Map<RankingAlgorithm, int[]> classRankings) {
+        var representative = rankingAlgorithm.getRankRepresentative();
+        int[] classRanking = classRankings.get(representative);
+        if (classRanking == null) {
+            int[] ranking = sort(rankingAlgorithm, spectrum);
+            if (SHARED_CLASSES.contains(representative)) {
+                classRankings.put(representative, ranking.clone());
+            }
+            return ranking;
+        }
+
+        score(rankingAlgorithm, spectrum);
+        if (RankingSort.isSorted(spectrum.getScores(), classRanking, spectrum.size())) {
+            return classRanking;
+        }
+
+        LOG.debug("{} does not rank {} like {}, sorting it", rankingAlgorithm, spectrum.getName(), representative);
+        RankingSort.sortDescending(spectrum.getScores(), spectrum.getRanking(), spectrum.getRankingBuffer(),
+                spectrum.size());
+        return spectrum.getRanking();
+    }
+
+    private static void commit(RankEvent event, RankingAlgorithm rankingAlgorithm, ColumnarSpectrum spectrum) {
+        event.commit(spectrum.getBug(), spectrum.getTriggeringMode(), rankingAlgorithm, spectrum.size(),
+                spectrum.getTotalOfFailedTests() + spectrum.getTotalOfPassedTests());
+    }
+
+    private static void score(RankingAlgorithm rankingAlgorithm, ColumnarSpectrum spectrum) {
+        SpVector.toScores(rankingAlgorithm, spectrum.getFailedTests(), spectrum.getPassedTests(),
+                spectrum.getTotalOfFailedTests(), spectrum.getTotalOfPassedTests(), spectrum.getScores(),
+                spectrum.size());
+    }
+
+    /**
+     * Ranks of the bug's locations from the spectrum's current scores. A location matching several entities
+     * takes the worst of their ranks, as a FQN -> rank map built over the full ranked list would.
+     */
+    private static List<Integer> locationRanks(ColumnarSpectrum spectrum) {
+        int[][] locationIds = spectrum.getLocationIds();
+        int[] ids = Stream.of(locationIds).flatMapToInt(IntStream::of).distinct().toArray();
+        int[] ranks = RankingSort.countRanks(spectrum.getScores(), spectrum.size(), ids);
+
+        Map<Integer, Integer> rankById = new HashMap<>();
+        for (int i=0; i<ids.length; i++) {
+            rankById.put(ids[i], ranks[i]);
+        }
+
+        return Stream.of(locationIds)
+                .map(matchingIds -> IntStream.of(matchingIds).map(rankById::get).max().orElse(Integer.MAX_VALUE))
+                .sorted()
+                .toList();
+    }
+
+    private Spectrum rank(RankingAlgorithm rankingAlgorithm, Spectrum spectrum, ColumnarSpectrum columnarSpectrum,
+                          int topK) {
+        var locationRanks = rankLocations(rankingAlgorithm, columnarSpectrum);
+        int[] top = columnarSpectrum.getRanking();
+        int size = RankingSort.topK(columnarSpectrum.getScores(), columnarSpectrum.size(), topK, top);
 
         return ImmutableSpectrum.copyOf(spectrum)
                 .withRankingAlgorithm(rankingAlgorithm)
-                .withRankedEntitiesList(rankedList);
+                .withRankedEntitiesList(toRankedList(top, size, columnarSpectrum))
+                .withLocationRanks(locationRanks);
     }
 
+    private Spectrum rank(RankingAlgorithm rankingAlgorithm, Spectrum spectrum, ColumnarSpectrum columnarSpectrum) {
+        return ranked(rankingAlgorithm, spectrum, rank(rankingAlgorithm, columnarSpectrum), columnarSpectrum);
+    }
+
+    /**
+     * The spectrum with its full ranked list, and the ranks of the bug's locations in that list, found by entity id
+     */
+    private Spectrum ranked(RankingAlgorithm rankingAlgorithm, Spectrum spectrum, int[] ranking,
+                            ColumnarSpectrum columnarSpectrum) {
+        return ImmutableSpectrum.copyOf(spectrum)
+                .withRankingAlgorithm(rankingAlgorithm)
+                .withRankedEntitiesList(toRankedList(ranking, columnarSpectrum.size(), columnarSpectrum))
+                .withLocationRanks(locationRanks(ranking, columnarSpectrum));
+    }
+
+    /**
+     * Ranks of the bug's locations in a full ranking: a location matching several entities takes the worst of their
+     * positions, as a FQN -> rank map built over the ranked list would
+     */
     @Override
-    public List<Spectrum> rankAll(Spectrum spectrum) {
-        return Stream.of(RankingAlgorithm.values())
-                .map(rankingAlgorithm -> rank(rankingAlgorithm, spectrum))
-                .collect(Collectors.toList());
+    public List<Integer> locationRanks(int[] ranking, ColumnarSpectrum spectrum) {
+        int[] positions = new int[spectrum.size()];
+        for (int i=0; i<spectrum.size(); i++) {
+            positions[ranking[i]] = i + 1;
+        }
+
+        return Stream.of(spectrum.getLocationIds())
+                .map(matchingIds -> IntStream.of(matchingIds).map(id -> positions[id]).max().orElse(Integer.MAX_VALUE))
+                .sorted()
+                .toList();
+    }
+
+    private static List<Entity> toRankedList(int[] ranking, int size, ColumnarSpectrum spectrum) {
+        List<Entity> rankedList = new ArrayList<>(size);
+        for (int i=0; i<size; i++) {
+            int id = ranking[i];
+            rankedList.add(ImmutableEntity.of(id, spectrum.getFqn(id), spectrum.getFailedTests()[id],
+                    spectrum.getPassedTests()[id], spectrum.getScores()[id]));
+        }
+        return rankedList;
     }
 }
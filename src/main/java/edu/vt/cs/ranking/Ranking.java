@@ -1,8 +1,10 @@
 package edu.vt.cs.ranking;
 
+import edu.vt.cs.models.ColumnarSpectrum;
 import edu.vt.cs.models.Spectrum;
 
 import java.util.List;
+import java.util.Map;
 
 public interface Ranking {
     /**
@@ -19,4 +21,50 @@ public interface Ranking {
      * @return map algorithm -> ranked list
      */
     List<Spectrum> rankAll(Spectrum spectrum);
+
+    /**
+     * Rank a spectrum's entities, keeping only what the metrics need: the exact ranks of the bug's locations,
+     * and the top-k entities as the ranked list
+     * @param rankingAlgorithm an ranking algorithm input
+     * @param spectrum spectrum of a program
+     * @param topK size of the ranked list to keep, 0 for none
+     * @return spectrum with location ranks and a ranked list of at most topK entities
+     */
+    Spectrum rank(RankingAlgorithm rankingAlgorithm, Spectrum spectrum, int topK);
+
+    /**
+     * Exact ranks of the bug's locations in a columnar spectrum, without sorting its entities
+     * @param rankingAlgorithm an ranking algorithm input
+     * @param spectrum columnar spectrum of a program
+     * @return 1-based ranks sorted ascending, Integer.MAX_VALUE for a location missing from the spectrum
+     */
+    List<Integer> rankLocations(RankingAlgorithm rankingAlgorithm, ColumnarSpectrum spectrum);
+
+    /**
+     * Score and sort a columnar spectrum in its own buffers, without allocating per entity
+     * @param rankingAlgorithm an ranking algorithm input
+     * @param spectrum columnar spectrum of a program
+     * @return the spectrum's ranking buffer, i.e. entity ids from the highest to the lowest score
+     */
+    int[] rank(RankingAlgorithm rankingAlgorithm, ColumnarSpectrum spectrum);
+
+    /**
+     * Same as {@link #rank(RankingAlgorithm, ColumnarSpectrum)}, but algorithms of a rank-equivalence class share one
+     * sort across calls on the same spectrum, see {@link RankingAlgorithm#getRankRepresentative()}
+     * @param rankingAlgorithm an ranking algorithm input
+     * @param spectrum columnar spectrum of a program
+     * @param classRankings rankings of the classes sorted so far, one map per spectrum, initially empty
+     * @return entity ids from the highest to the lowest score, either the spectrum's ranking buffer or a class
+     * ranking kept in the map; neither must be modified
+     */
+    int[] rank(RankingAlgorithm rankingAlgorithm, ColumnarSpectrum spectrum, Map<RankingAlgorithm, int[]> classRankings);
+
+    /**
+     * Ranks of the bug's locations in a full ranking of a columnar spectrum, as its ranked list would give them
+     * @param ranking entity ids from the highest to the lowest score, e.g. from
+     *                {@link #rank(RankingAlgorithm, ColumnarSpectrum)}
+     * @param spectrum columnar spectrum of a program
+     * @return 1-based positions sorted ascending, Integer.MAX_VALUE for a location missing from the spectrum
+     */
+    List<Integer> locationRanks(int[] ranking, ColumnarSpectrum spectrum);
 }
@@ -6,24 +6,47 @@ public enum RankingAlgorithm {
     OCHIAI2,
     JACCARD,
     RUSSELLRAO,
-    SORENSENDICE,
-    KULCZYNSKI1,
+    SORENSENDICE(JACCARD),
+    KULCZYNSKI1(JACCARD),
     SIMPLEMATCHING,
     M1,
     ROGERSTANIMOTO,
     HAMMING,
     OVERLAP,
-    WONG1,
+    WONG1(HAMMING),
     AMPLE,
     HAMANN,
-    DICE,
+    DICE(JACCARD),
     KULCZYNSKI2,
     SOKAL,
     M2,
-    GOODMAN,
-    EUCLID,
-    ANDERBERG,
+    GOODMAN(JACCARD),
+    EUCLID(HAMMING),
+    ANDERBERG(JACCARD),
     ZOLTAR,
     WONG2,
-    WONG3
+    WONG3;
+
+    private final RankingAlgorithm rankRepresentative;
+
+    RankingAlgorithm() {
+        this.rankRepresentative = null;
+    }
+
+    /**
+     * @param rankRepresentative an algorithm whose formula is a strictly increasing function of this one's
+     *                           once the spectrum's totals nf and np are fixed, so both rank entities the same way
+     */
+    RankingAlgorithm(RankingAlgorithm rankRepresentative) {
+        this.rankRepresentative = rankRepresentative;
+    }
+
+    /**
+     * Representative of the rank-equivalence class of this algorithm, itself if it has no declared equivalent.
+     * JACCARD, DICE, SORENSENDICE, ANDERBERG, KULCZYNSKI1 and GOODMAN all grow with ef / (ep + nf), and
+     * HAMMING, EUCLID and WONG1 all grow with ef.
+     */
+    public RankingAlgorithm getRankRepresentative() {
+        return rankRepresentative == null ? this : rankRepresentative;
+    }
 }
@@ -0,0 +1,172 @@
+package edu.vt.cs.ranking;
+
+import java.util.Arrays;
+
+/**
+ * Sorts entity ids by score without boxing.
+ * The order is descending by {@link Double#compare} (so NaN scores come first), ties kept in ascending id order,
+ * which is exactly the order of a stable sort by {@code Comparator.comparingDouble(score).reversed()} over
+ * entities in id order.
+ */
+final class RankingSort {
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
+    private RankingSort() {
+    }
+
+    /**
+     * Write ids 0..n-1 into ranking, ordered from the highest to the lowest score
+     * @param buffer scratch array of at least n elements
+     */
+    static void sortDescending(double[] scores, int[] ranking, int[] buffer, int n) {
+        for (int i=0; i<n; i++) {
+            ranking[i] = i;
+        }
+
+        for (int from=0; from<n; from+=INSERTION_SORT_THRESHOLD) {
+            insertionSort(scores, ranking, from, Math.min(from + INSERTION_SORT_THRESHOLD, n));
+        }
+
+        int[] src = ranking;
+        int[] dest = buffer;
+
+        for (int width=INSERTION_SORT_THRESHOLD; width<n; width*=2) {
+            for (int lo=0; lo<n; lo+=2*width) {
+                int mid = Math.min(lo + width, n);
+                int hi = Math.min(lo + 2 * width, n);
+                merge(scores, src, dest, lo, mid, hi);
+            }
+            int[] tmp = src;
+            src = dest;
+            dest = tmp;
+        }
+
+        if (src != ranking) {
+            System.arraycopy(src, 0, ranking, 0, n);
+        }
+    }
+
+    /**
+     * Keep the k best-ranked ids with a bounded heap, in O(n log k) instead of sorting all n ids
+     * @param top receives the kept ids, from the highest to the lowest score; at least min(k, n) elements
+     * @return number of ids written to top
+     */
+    static int topK(double[] scores, int n, int k, int[] top) {
+        int size = 0;
+
+        // top[0..size) is a heap whose root is the worst-ranked kept id
+        for (int id=0; id<n && k>0; id++) {
+            if (size < k) {
+                top[size] = id;
+                siftUp(scores, top, size++);
+            } else if (ranksBefore(scores, id, top[0])) {
+                top[0] = id;
+                siftDown(scores, top, 0, size);
+            }
+        }
+
+        for (int end=size-1; end>0; end--) {
+            int worst = top[0];
+            top[0] = top[end];
+            top[end] = worst;
+            siftDown(scores, top, 0, end);
+        }
+
+        return size;
+    }
+
+    /**
+     * Exact 1-based rank of some entities in the full ranking, counting the entities ranked before each of them.
+     * O(n) per entity, without sorting.
+     */
+    static int[] countRanks(double[] scores, int n, int[] ids) {
+        int[] ranks = new int[ids.length];
+        Arrays.fill(ranks, 1);
+
+        for (int i=0; i<n; i++) {
+            for (int j=0; j<ids.length; j++) {
+                if (ranksBefore(scores, i, ids[j])) {
+                    ranks[j]++;
+                }
+            }
+        }
+
+        return ranks;
+    }
+
+    private static void siftUp(double[] scores, int[] heap, int i) {
+        int id = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!ranksBefore(scores, heap[parent], id)) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = id;
+    }
+
+    private static void siftDown(double[] scores, int[] heap, int i, int size) {
+        int id = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && ranksBefore(scores, heap[child], heap[child + 1])) {
+                child++;
+            }
+            if (!ranksBefore(scores, id, heap[child])) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = id;
+    }
+
+    /**
+     * Whether ranking[0..n) is exactly the order sortDescending would produce for these scores, in O(n)
+     */
+    static boolean isSorted(double[] scores, int[] ranking, int n) {
+        for (int i=1; i<n; i++) {
+            if (!ranksBefore(scores, ranking[i - 1], ranking[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return whether entity a ranks before entity b
+     */
+    static boolean ranksBefore(double[] scores, int a, int b) {
+        int cmp = Double.compare(scores[a], scores[b]);
+        return cmp > 0 || (cmp == 0 && a < b);
+    }
+
+    private static void insertionSort(double[] scores, int[] ids, int from, int to) {
+        for (int i=from+1; i<to; i++) {
+            int id = ids[i];
+            int j = i - 1;
+            while (j >= from && ranksBefore(scores, id, ids[j])) {
+                ids[j + 1] = ids[j];
+                j--;
+            }
+            ids[j + 1] = id;
+        }
+    }
+
+    private static void merge(double[] scores, int[] src, int[] dest, int lo, int mid, int hi) {
+        int i = lo;
+        int j = mid;
+        for (int k=lo; k<hi; k++) {
+            if (j >= hi || (i < mid && !ranksBefore(scores, src[j], src[i]))) {
+                dest[k] = src[i++];
+            } else {
+                dest[k] = src[j++];
+            }
+        }
+    }
+}
@@ -4,12 +4,19 @@ import edu.vt.cs.models.Entity;
 import edu.vt.cs.models.Spectrum;
 
 public class SpVector {
+    /**
+     * Batch scoring uses the JDK Vector API when the jdk.incubator.vector module is present
+     * (run with --add-modules jdk.incubator.vector), unless disabled with -Dsbfl.vectorized=false
+     */
+    static final boolean VECTORIZED = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+            && Boolean.parseBoolean(System.getProperty("sbfl.vectorized", "true"));
+
     double ef;
     double ep;
     double nf;
     double np;
 
-    private SpVector(double ef, double ep, double nf, double np) {
+    SpVector(double ef, double ep, double nf, double np) {
         this.ef = ef;
         this.ep = ep;
         this.nf = nf;
@@ -21,6 +28,29 @@ public class SpVector {
                 spectrum.getTotalOfFailedTests(), spectrum.getTotalOfPassedTests());
     }
 
+    /**
+     * Score a whole spectrum at once: scores[i] is the score of the entity covered by ef[i] failed tests and
+     * ep[i] passed tests. Scores are identical to {@link #toScore} whether or not SIMD lanes are used.
+     */
+    public static void toScores(RankingAlgorithm rankingAlgorithm, int[] ef, int[] ep, double nf, double np,
+                                double[] scores, int n) {
+        if (VECTORIZED) {
+            VectorizedScorer.toScores(rankingAlgorithm, ef, ep, nf, np, scores, n);
+        } else {
+            toScoresScalar(rankingAlgorithm, ef, ep, nf, np, scores, n);
+        }
+    }
+
+    static void toScoresScalar(RankingAlgorithm rankingAlgorithm, int[] ef, int[] ep, double nf, double np,
+                               double[] scores, int n) {
+        var vector = new SpVector(0, 0, nf, np);
+        for (int i=0; i<n; i++) {
+            vector.ef = ef[i];
+            vector.ep = ep[i];
+            scores[i] = vector.toScore(rankingAlgorithm);
+        }
+    }
+
     double toScore(RankingAlgorithm rankingAlgorithm) {
         return switch (rankingAlgorithm) {
             case TARANTULA -> toTarantula();
@@ -0,0 +1,88 @@
+package edu.vt.cs.ranking;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD counterpart of the {@link SpVector} formulas, scoring a whole spectrum lane by lane.
+ * Every formula applies the same IEEE operations in the same order as its scalar version, so scores are bit-identical,
+ * NaN and infinities from divisions by zero included.
+ * Only loaded when the jdk.incubator.vector module is present, see {@link SpVector#toScores}.
+ */
+final class VectorizedScorer {
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+
+    private static final VectorSpecies<Integer> INTS = VectorSpecies.of(int.class,
+            VectorShape.forBitSize(DOUBLES.vectorBitSize() / 2));
+
+    private VectorizedScorer() {
+    }
+
+    static void toScores(RankingAlgorithm rankingAlgorithm, int[] ef, int[] ep, double nf, double np,
+                         double[] scores, int n) {
+        int upperBound = DOUBLES.loopBound(n);
+        int i = 0;
+
+        for (; i<upperBound; i+=DOUBLES.length()) {
+            var efs = (DoubleVector) IntVector.fromArray(INTS, ef, i).convertShape(VectorOperators.I2D, DOUBLES, 0);
+            var eps = (DoubleVector) IntVector.fromArray(INTS, ep, i).convertShape(VectorOperators.I2D, DOUBLES, 0);
+            toScore(rankingAlgorithm, efs, eps, nf, np).intoArray(scores, i);
+        }
+
+        if (i < n) {
+            var vector = new SpVector(0, 0, nf, np);
+            for (; i<n; i++) {
+                vector.ef = ef[i];
+                vector.ep = ep[i];
+                scores[i] = vector.toScore(rankingAlgorithm);
+            }
+        }
+    }
+
+    private static DoubleVector toScore(RankingAlgorithm rankingAlgorithm, DoubleVector ef, DoubleVector ep,
+                                        double nf, double np) {
+        return switch (rankingAlgorithm) {
+            case TARANTULA -> nf == 0
+                    ? DoubleVector.zero(DOUBLES)
+                    : ef.div(ef.add(nf)).div(ef.div(ef.add(nf)).add(ep.div(ep.add(np))));
+            case AMPLE -> ef.div(ef.add(nf)).sub(ep.div(ep.add(np))).abs();
+            case EUCLID -> ef.add(np).sqrt();
+            case M1 -> ef.add(np).div(ep.add(nf));
+            case M2 -> ef.div(ef.add(np).add(2 * nf).add(ep.mul(2.0)));
+            case DICE -> ef.mul(2.0).div(ef.add(ep).add(nf));
+            case SOKAL -> ef.mul(2.0).add(2 * np).div(ef.mul(2.0).add(2 * np).add(nf).add(ep));
+            case WONG1 -> ef;
+            case ANDERBERG -> ef.div(ef.add(ep.mul(2.0)).add(2 * nf));
+            case GOODMAN -> ef.mul(2.0).sub(nf).sub(ep).div(ef.mul(2.0).add(nf).add(ep));
+            case HAMANN -> ef.add(np).sub(ep).sub(nf).div(ef.add(ep).add(nf).add(np));
+            case JACCARD -> ef.div(ef.add(ep).add(nf));
+            case KULCZYNSKI1 -> ef.div(ep.add(nf));
+            case KULCZYNSKI2 -> ef.div(ef.add(nf)).add(ef.div(ef.add(ep))).mul(0.5);
+            case OCHIAI2 -> ef.mul(np).div(ef.add(ep).mul(nf + np).mul(ef.add(np)).mul(ep.add(nf)).sqrt());
+            case ZOLTAR -> ef.div(ef.add(ep).add(nf).add(ep.mul(10000 * nf).div(ef)));
+            case ROGERSTANIMOTO -> ef.add(np).div(ef.add(np).add(2 * nf).add(ep.mul(2.0)));
+            case WONG3 -> ef.sub(toWong3H(ep));
+            case HAMMING -> ef.add(np);
+            case OCHIAI -> Math.round(nf) != 0
+                    ? ef.div(ef.add(ep).mul(ef.add(nf)).sqrt())
+                    : DoubleVector.zero(DOUBLES);
+            case OVERLAP -> ef.div(ef.min(ep).min(nf));
+            case RUSSELLRAO -> ef.div(ef.add(ep).add(nf).add(np));
+            case WONG2 -> ef.sub(ep);
+            case SIMPLEMATCHING -> ef.add(np).div(ef.add(ep).add(nf).add(np));
+            case SORENSENDICE -> ef.mul(2.0).div(ef.mul(2.0).add(ep).add(nf));
+        };
+    }
+
+    private static DoubleVector toWong3H(DoubleVector ep) {
+        VectorMask<Double> above10 = ep.compare(VectorOperators.GT, 10.0);
+        VectorMask<Double> above2 = ep.compare(VectorOperators.GT, 2.0).andNot(above10);
+        return ep
+                .blend(ep.sub(2.0).mul(0.1).add(2.0), above2)
+                .blend(ep.sub(10.0).mul(0.01).add(2.8), above10);
+    }
+}
@@ -83,6 +83,10 @@ public class BugParser {
         Files.writeString(Paths.get(destPath), objectMapper.writeValueAsString(parse(filter)), Charset.defaultCharset());
     }
 
+    /**
+     * Read bugs serialized by {@link #serializeBugs}, their locations are normalized to FQNs as each bug is built,
+     * see {@link Bug#getLocationFqns()}
+     */
     public static List<Bug> derBugs(String srcPath) throws IOException {
         return objectMapper.readValue(Paths.get(srcPath).toFile(), new TypeReference<>() { });
     }
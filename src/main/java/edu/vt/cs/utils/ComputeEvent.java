@@ -0,0 +1,14 @@
+package edu.vt.cs.utils;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Computation of the metrics of a ranked spectrum, see {@link edu.vt.cs.models.Spectrum#compute()}
+ */
+@Name("edu.vt.cs.Compute")
+@Label("Compute Metrics")
+@Description("Computation of the metrics of a ranked spectrum from the ranks of its bug's locations")
+public class ComputeEvent extends WorkUnitEvent {
+}
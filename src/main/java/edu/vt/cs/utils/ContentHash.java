@@ -0,0 +1,83 @@
+package edu.vt.cs.utils;
+
+import edu.vt.cs.models.Bug;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+import static edu.vt.cs.models.Constants.MATRIX_FILE_NAME;
+import static edu.vt.cs.models.Constants.SPECTRA_FILE_NAME;
+
+/**
+ * SHA-256 of a bug's coverage data, i.e. its matrix and spectra files, identifying the exact input an evaluation
+ * was computed from
+ */
+public final class ContentHash {
+    private ContentHash() {
+    }
+
+    public static List<Path> coverageFiles(Bug bug, String gzoltarsPath) {
+        var bugDir = Paths.get(gzoltarsPath, bug.getProject().name(), String.valueOf(bug.getBugId()));
+        return List.of(bugDir.resolve(MATRIX_FILE_NAME), bugDir.resolve(SPECTRA_FILE_NAME));
+    }
+
+    /**
+     * Size and modification time of files, a cheap way to tell whether a hash computed earlier still holds
+     */
+    public static String stamp(List<Path> files) throws IOException {
+        var sb = new StringBuilder();
+        for (Path file : files) {
+            sb.append(Files.size(file)).append(':').append(Files.getLastModifiedTime(file).toMillis()).append(';');
+        }
+        return sb.toString();
+    }
+
+    public static String sha256(List<Path> files) throws IOException {
+        var digest = newDigest();
+        var buffer = ByteBuffer.allocate(1 << 16);
+        for (Path file : files) {
+            try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                // length first, so that moving bytes from one file to the next changes the hash
+                digest.update(ByteBuffer.allocate(Long.BYTES).putLong(0, channel.size()));
+                while (channel.read(buffer) != -1) {
+                    buffer.flip();
+                    digest.update(buffer);
+                    buffer.clear();
+                }
+            }
+        }
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * SHA-256 of strings, each prefixed by its length so that moving characters from one to the next changes it
+     */
+    public static String sha256(String... parts) {
+        var digest = newDigest();
+        for (String part : parts) {
+            var bytes = part.getBytes(StandardCharsets.UTF_8);
+            digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(0, bytes.length));
+            digest.update(bytes);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package edu.vt.cs.utils;
 
+import edu.vt.cs.evaluation.TriggeringMode;
 import edu.vt.cs.models.Bug;
+import edu.vt.cs.models.ColumnarSpectrum;
 import edu.vt.cs.models.Constants;
-import edu.vt.cs.models.Project;
+import edu.vt.cs.models.FqnTable;
 import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
 import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
 import org.slf4j.Logger;
@@ -13,6 +16,8 @@ import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -20,19 +25,22 @@ import java.nio.file.StandardCopyOption;
 import java.util.AbstractMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.concurrent.Callable;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.BiPredicate;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+import static edu.vt.cs.models.Constants.ARTIFICIAL_INPUT_BUGS_DIR;
 import static edu.vt.cs.models.Constants.DATA_FILE_NAME;
+import static edu.vt.cs.models.Constants.MATRIX_FILE_NAME;
 import static edu.vt.cs.models.Constants.NO_OF_FILES_MAX;
 import static edu.vt.cs.models.Constants.REAL_BUG_ID_UPPER_BOUND;
+import static edu.vt.cs.models.Constants.SPECTRA_FILE_NAME;
 
 /**
  * Util class that helps read/load raw coverage data compressed in tar format
@@ -45,25 +53,34 @@ public class CoverageDataReader {
 
     private static final Predicate<String> isRealBug = bugId -> Integer.parseInt(bugId) <= REAL_BUG_ID_UPPER_BOUND;
 
-    private static final List<Bug> artificialBugs;
-
-    static {
-        try {
-            artificialBugs = BugParser.derBugs("data/multi-bugs/all_artificial_bugs.json");
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+    /**
+     * Names of the artificial bugs, see {@link Bug#getName()}, hashed so that each archive found is checked in O(1).
+     * Loaded on first use, so that reading archives does not need the bug list.
+     */
+    private static final class ArtificialBugs {
+        private static final Set<String> NAMES;
+
+        static {
+            try {
+                NAMES = BugParser.derBugs(ARTIFICIAL_INPUT_BUGS_DIR).stream()
+                        .map(Bug::getName)
+                        .collect(Collectors.toUnmodifiableSet());
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
         }
     }
 
     private static final BiPredicate<String, Integer> isArtificialBug = (projectName, bugId)
-            -> artificialBugs.stream().anyMatch(b -> b.getProject() == Project.valueOf(projectName)
-            && b.getBugId() == bugId);
+            -> ArtificialBugs.NAMES.contains(projectName + "::" + bugId);
+
+    private static TarArchiveInputStream openTarGzip(InputStream inputStream) throws IOException {
+        return new TarArchiveInputStream(new GzipCompressorInputStream(new BufferedInputStream(inputStream)));
+    }
 
     private static void decompressTarGzipFile(InputStream uploadedInputStream, Path target) throws IOException {
 
-        try (BufferedInputStream bi = new BufferedInputStream(uploadedInputStream);
-             GzipCompressorInputStream gzi = new GzipCompressorInputStream(bi);
-             TarArchiveInputStream ti = new TarArchiveInputStream(gzi)) {
+        try (TarArchiveInputStream ti = openTarGzip(uploadedInputStream)) {
 
             ArchiveEntry entry;
             while ((entry = ti.getNextEntry()) != null) {
@@ -108,43 +125,95 @@ public class CoverageDataReader {
         return new AbstractMap.SimpleEntry<>(false, sourceBugFilePath);
     }
 
+    /**
+     * Archives are decompressed on the bounded I/O executor as soon as they are found, while the source tree is
+     * still being walked. As with invokeAll, all archives share one deadline, past which unfinished tasks are
+     * cancelled.
+     */
     public static void etlGzoltarCoverageData(String sourcePath, String destPath, int noOfFiles) throws IOException,
             InterruptedException {
 
-        ExecutorService executorService = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        ExecutorService executorService = IoExecutors.newIoExecutor();
+        long deadline = System.nanoTime() + TimeUnit.HOURS.toNanos(1L);
 
-        var tasks = Files.find(Paths.get(sourcePath), Integer.MAX_VALUE,
-                        (filePath, fileAttr) -> fileAttr.isRegularFile()
-                                && filePath.toFile().getName().equals(DATA_FILE_NAME)
-                                && isArtificialBug.test(filePath.getParent().getParent().toFile().getName(),
-                                        Integer.parseInt(filePath.getParent().toFile().getName())))
-                .limit(Math.min(noOfFiles, NO_OF_FILES_MAX))
-                .map(bugFilePath -> (Callable<Map.Entry<Boolean, Path>>) () -> decompress(bugFilePath, destPath))
-                .collect(Collectors.toList());
+        LOG.info("Start bulk processing...");
 
-        LOG.info("Total real bugs found = {}", tasks.size());
+        List<Future<Map.Entry<Boolean, Path>>> tasks;
+        try (var archives = Files.find(Paths.get(sourcePath), Integer.MAX_VALUE,
+                (filePath, fileAttr) -> fileAttr.isRegularFile()
+                        && filePath.toFile().getName().equals(DATA_FILE_NAME)
+                        && isArtificialBug.test(filePath.getParent().getParent().toFile().getName(),
+                                Integer.parseInt(filePath.getParent().toFile().getName())))) {
+            tasks = archives.limit(Math.min(noOfFiles, NO_OF_FILES_MAX))
+                    .map(bugFilePath -> executorService.submit(() -> decompress(bugFilePath, destPath)))
+                    .toList();
+        }
 
-        LOG.info("Start bulk processing...");
+        LOG.info("Total real bugs found = {}", tasks.size());
 
-        var noFailedFiles = executorService.invokeAll(tasks, 1L, TimeUnit.HOURS).stream()
-                .map(f -> {
-                    try {
-                        return f.get();
-                    } catch (InterruptedException | ExecutionException e) {
-                        LOG.error("Failed some task", e);
+        long noFailedFiles = 0;
+        try {
+            for (Future<Map.Entry<Boolean, Path>> task : tasks) {
+                try {
+                    var ent = task.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    if (!ent.getKey()) {
+                        LOG.error("This file {} failed!!!", ent.getValue().toFile().getName());
+                        noFailedFiles++;
                     }
-                    return null;
-                })
-                .filter(Objects::nonNull)
-                .filter(ent -> !ent.getKey())
-                .peek(ent -> LOG.error("This file {} failed!!!", ent.getValue().toFile().getName()))
-                .count();
+                } catch (ExecutionException e) {
+                    LOG.error("Failed some task", e.getCause());
+                } catch (TimeoutException e) {
+                    LOG.error("Task cancelled, past the deadline");
+                    task.cancel(true);
+                }
+            }
+        } finally {
+            executorService.shutdownNow();
+            if (!executorService.awaitTermination(1L, TimeUnit.MINUTES)) {
+                LOG.warn("Some decompression tasks did not stop");
+            }
+        }
 
         LOG.info("Data all done transferred. Fails = {}", noFailedFiles);
 
         assert noFailedFiles == 0;
+    }
+
+    /**
+     * Build the spectra of a bug straight from its gzoltar archive: the matrix entry is streamed into the spectrum
+     * counters and the spectra entry into the FQN table, in whichever order the archive holds them, and nothing is
+     * written to disk
+     */
+    public static Map<TriggeringMode, ColumnarSpectrum> readColumnar(Bug bug, Set<TriggeringMode> triggeringModes,
+                                                                     Path archivePath) throws IOException {
+        try (var ti = openTarGzip(Files.newInputStream(archivePath))) {
+            FqnTable fqnTable = null;
+            TarArchiveEntry entry;
+            while ((entry = ti.getNextTarEntry()) != null) {
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                var fileName = Paths.get(entry.getName()).getFileName().toString();
+                if (fileName.equals(SPECTRA_FILE_NAME)) {
+                    fqnTable = FqnTable.of(ByteBuffer.wrap(ti.readAllBytes()));
+                } else if (fileName.equals(MATRIX_FILE_NAME)) {
+                    var spectraBeforeMatrix = fqnTable;
+                    return CoverageParser.readColumnar(bug, triggeringModes, Channels.newChannel(ti),
+                            () -> spectraBeforeMatrix != null ? spectraBeforeMatrix : nextFqnTable(ti, archivePath));
+                }
+            }
+        }
+        throw new IOException("No " + MATRIX_FILE_NAME + " entry in " + archivePath);
+    }
 
-        executorService.shutdown();
+    private static FqnTable nextFqnTable(TarArchiveInputStream ti, Path archivePath) throws IOException {
+        TarArchiveEntry entry;
+        while ((entry = ti.getNextTarEntry()) != null) {
+            if (!entry.isDirectory() && Paths.get(entry.getName()).getFileName().toString().equals(SPECTRA_FILE_NAME)) {
+                return FqnTable.of(ByteBuffer.wrap(ti.readAllBytes()));
+            }
+        }
+        throw new IOException("No " + SPECTRA_FILE_NAME + " entry in " + archivePath);
     }
 
     public static void main(String[] args) throws IOException, InterruptedException {
@@ -2,29 +2,28 @@ package edu.vt.cs.utils;
 
 import edu.vt.cs.evaluation.TriggeringMode;
 import edu.vt.cs.models.Bug;
-import edu.vt.cs.models.Entity;
-import edu.vt.cs.models.ImmutableEntity;
-import edu.vt.cs.models.ImmutableSpectrum;
-import edu.vt.cs.models.ImmutableTest;
-import edu.vt.cs.models.Result;
+import edu.vt.cs.models.ColumnarSpectrum;
+import edu.vt.cs.models.CoverageMatrix;
+import edu.vt.cs.models.FqnTable;
 import edu.vt.cs.models.Spectrum;
-import edu.vt.cs.models.Test;
+import org.apache.commons.io.function.IOSupplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.lang.invoke.MethodHandles;
-import java.nio.file.Files;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.function.Function;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
 
-import static edu.vt.cs.models.Constants.COVERED;
 import static edu.vt.cs.models.Constants.GZOLT_ROOT;
 import static edu.vt.cs.models.Constants.MATRIX_FILE_NAME;
-import static edu.vt.cs.models.Constants.PASSED_SYMBOL;
 import static edu.vt.cs.models.Constants.SPECTRA_FILE_NAME;
 import static edu.vt.cs.models.Result.Failed;
 import static edu.vt.cs.models.Result.Passed;
@@ -48,40 +47,130 @@ public class CoverageParser {
     }
 
     public static Spectrum parse(Bug bug, TriggeringMode triggeringMode, String gzoltarsPath) {
+        return parse(bug, EnumSet.of(triggeringMode), gzoltarsPath).get(triggeringMode);
+    }
+
+    /**
+     * Build the spectra of all triggering modes of a bug from a single pass over its matrix file
+     */
+    public static Map<TriggeringMode, Spectrum> parseAllModes(Bug bug, String gzoltarsPath) {
+        return parse(bug, EnumSet.allOf(TriggeringMode.class), gzoltarsPath);
+    }
+
+    /**
+     * @return spectrum of each requested mode, in mode order; an empty spectrum if the mode's cut-off is never reached
+     */
+    public static Map<TriggeringMode, Spectrum> parse(Bug bug, Set<TriggeringMode> triggeringModes, String gzoltarsPath) {
+        Map<TriggeringMode, Spectrum> spectra = new EnumMap<>(TriggeringMode.class);
+        parseColumnar(bug, triggeringModes, gzoltarsPath)
+                .forEach((triggeringMode, spectrum) -> spectra.put(triggeringMode, spectrum.toSpectrum()));
+        return spectra;
+    }
+
+    /**
+     * Every triggering mode selects a prefix of the test sequence, so the matrix is streamed once and the
+     * failed/passed counters are snapshot when each mode's cut-off test is reached.
+     * All spectra of the bug share one FQN table, the memory-mapped spectra file.
+     * @return columnar spectrum of each requested mode, in mode order; an empty spectrum if the mode's cut-off is
+     * never reached, or of every mode if the coverage data cannot be parsed
+     */
+    public static Map<TriggeringMode, ColumnarSpectrum> parseColumnar(Bug bug, Set<TriggeringMode> triggeringModes,
+                                                                      String gzoltarsPath) {
         try {
-            LOG.info("Parsing spectrum of bug = {} in mode = {}", bug.getName(), triggeringMode);
+            return readColumnar(bug, triggeringModes, gzoltarsPath);
+        } catch (Exception e) {
+            LOG.error("Failed to parse into spectrum of bug = {}, triggering modes = {}", bug, triggeringModes, e);
+        }
+
+        Map<TriggeringMode, ColumnarSpectrum> spectra = new EnumMap<>(TriggeringMode.class);
+        triggeringModes.forEach(triggeringMode -> spectra.put(triggeringMode,
+                ColumnarSpectrum.empty(bug, triggeringMode)));
+        return spectra;
+    }
 
-            var executedTests = Files.readAllLines(Paths.get(gzoltarsPath, bug.getProject().name(),
-                            String.valueOf(bug.getBugId()), MATRIX_FILE_NAME))
-                    .stream()
-                    .map(toExecutedTest)
-                    .toList();
+    /**
+     * Same as {@link #parseColumnar(Bug, Set, String)}, but fails if the coverage data cannot be parsed, so that
+     * callers such as {@link SpectrumCache} can tell a failure from a bug without spectra
+     */
+    public static Map<TriggeringMode, ColumnarSpectrum> readColumnar(Bug bug, Set<TriggeringMode> triggeringModes,
+                                                                     String gzoltarsPath) throws IOException {
+        var bugDir = Paths.get(gzoltarsPath, bug.getProject().name(), String.valueOf(bug.getBugId()));
+        try (var matrix = FileChannel.open(bugDir.resolve(MATRIX_FILE_NAME), StandardOpenOption.READ)) {
+            return readColumnar(bug, triggeringModes, matrix, () -> FqnTable.map(bugDir.resolve(SPECTRA_FILE_NAME)));
+        }
+    }
 
-            var fqnMappings = Files.readAllLines(Paths.get(gzoltarsPath, bug.getProject().name(),
-                    String.valueOf(bug.getBugId()), SPECTRA_FILE_NAME));
+    /**
+     * Build the spectra of a bug from any source of its coverage data, e.g. entries of its archive streamed by
+     * {@link CoverageDataReader#readColumnar}
+     * @param matrix the matrix file's bytes, read once and not closed
+     * @param fqnTable supplies the bug's FQN table once the matrix is read, only if some mode has a spectrum
+     * Emits a {@link ParseEvent}, of no triggering mode unless only one is requested.
+     */
+    public static Map<TriggeringMode, ColumnarSpectrum> readColumnar(Bug bug, Set<TriggeringMode> triggeringModes,
+                                                                     ReadableByteChannel matrix,
+                                                                     IOSupplier<FqnTable> fqnTable) throws IOException {
+        LOG.info("Parsing spectrum of bug = {} in modes = {}", bug.getName(), triggeringModes);
 
-            var testSubset = triggeringMode.getSubSetFn().apply(executedTests);
+        var event = new ParseEvent();
+        event.begin();
 
-            return testSubset.isEmpty()
-                    ? Spectrum.getEmptySpectrum(bug, triggeringMode)
-                    : from(bug, triggeringMode, testSubset, fqnMappings);
+        var builder = new PrefixSpectrumBuilder(triggeringModes);
 
-        } catch (Exception e) {
-            LOG.error("Failed to parse into spectrum of bug = {}, triggering mode = {}", bug, triggeringMode, e);
+        GzoltarMatrixReader.read(matrix, builder);
+
+        if (builder.firstFailedTestIndex == -1) {
+            LOG.error("There is no failed test in bug = {}", bug.getName());
+        }
+
+        builder.completeTestSet();
+
+        var fqnMappings = builder.snapshots.isEmpty() ? FqnTable.empty() : fqnTable.get();
+
+        Map<TriggeringMode, ColumnarSpectrum> spectra = new EnumMap<>(TriggeringMode.class);
+        for (TriggeringMode triggeringMode : triggeringModes) {
+            var snapshot = builder.snapshots.get(triggeringMode);
+            spectra.put(triggeringMode, snapshot == null
+                    ? ColumnarSpectrum.empty(bug, triggeringMode)
+                    : new ColumnarSpectrum(bug, triggeringMode, snapshot.failedTests(), snapshot.passedTests(),
+                            snapshot.totalFailedTests(), snapshot.totalPassedTests(), fqnMappings));
         }
 
-        return Spectrum.getEmptySpectrum(bug, triggeringMode);
+        event.commit(bug, triggeringModes.size() == 1 ? triggeringModes.iterator().next() : null, null,
+                builder.failedTests == null ? 0 : builder.failedTests.length, builder.numberOfTests);
+        return spectra;
     }
 
     public static int getTestCount(Bug bug, TriggeringMode triggeringMode, String gzoltarsPath) throws IOException {
-        var executedTests = Files.readAllLines(Paths.get(gzoltarsPath, bug.getProject().name(),
-                        String.valueOf(bug.getBugId()), MATRIX_FILE_NAME))
-                .stream()
-                .map(toExecutedTest)
-                .toList();
-        var testSubset = triggeringMode.getSubSetFn().apply(executedTests);
-
-        return testSubset.size();
+        var cutOff = triggeringMode.getCutOff();
+        int[] failedTestsSoFar = {0};
+        int[] firstFailedTestIndex = {-1};
+        int[] testCount = {0};
+
+        int visitedTests = GzoltarMatrixReader.read(Paths.get(gzoltarsPath, bug.getProject().name(),
+                String.valueOf(bug.getBugId()), MATRIX_FILE_NAME), (test, covered, coveredCount, locations, failed) -> {
+            if (failed) {
+                failedTestsSoFar[0]++;
+                if (firstFailedTestIndex[0] == -1) {
+                    firstFailedTestIndex[0] = test;
+                }
+            }
+            if (cutOff.isLastTest(test, failed, failedTestsSoFar[0], firstFailedTestIndex[0])) {
+                testCount[0] = test + 1;
+                return false;
+            }
+            return true;
+        });
+
+        if (triggeringMode.isComplete()) {
+            return visitedTests;
+        }
+
+        if (firstFailedTestIndex[0] == -1) {
+            throw new RuntimeException("There is no failed test");
+        }
+
+        return testCount[0];
     }
 
     public static int getTestCount(Bug bug, TriggeringMode triggeringMode) {
@@ -92,73 +181,101 @@ public class CoverageParser {
         }
     }
 
-    private static final Function<String, Test> toExecutedTest = testCoverageLine -> {
-        String[] coverageVector = testCoverageLine.split("\s");
+    /**
+     * Read a gzoltar matrix file, each line is a test: a coverage flag per location followed by the test result
+     */
+    public static CoverageMatrix readCoverageMatrix(Path matrixPath) throws IOException {
+        CoverageMatrix.Builder[] builder = {null};
 
-        List<Boolean> coverageLocations = Arrays.stream(coverageVector)
-                .limit(coverageVector.length - 1)
-                .map(COVERED::equals)
-                .toList();
+        GzoltarMatrixReader.read(matrixPath, (test, covered, coveredCount, numberOfLocations, failed) -> {
+            if (builder[0] == null) {
+                builder[0] = CoverageMatrix.builder(numberOfLocations);
+            }
 
-        Result result = PASSED_SYMBOL.equals(coverageVector[coverageVector.length - 1])
-                ? Passed
-                : Failed;
+            long[] row = builder[0].newRow();
+            for (int i=0; i<coveredCount; i++) {
+                row[covered[i] >>> 6] |= 1L << covered[i];
+            }
 
-        return ImmutableTest.of(result, coverageLocations, coverageLocations.size());
-    };
+            builder[0].addTest(row, failed ? Failed : Passed);
+            return true;
+        });
 
-    private static Spectrum from(Bug bug, TriggeringMode triggeringMode, List<Test> executedTests, List<String> fqnMappings) {
+        return (builder[0] == null ? CoverageMatrix.builder(0) : builder[0]).build();
+    }
 
-        int totalLocations = executedTests.get(0).getNumberOfLocations();
+    /**
+     * Failed/passed test counts of every entity over a prefix of the test sequence
+     */
+    private record CounterSnapshot(int[] failedTests, int[] passedTests, int totalFailedTests, int totalPassedTests) {
+    }
 
-        int totalTests = executedTests.size();
+    /**
+     * Accumulates per-entity failed/passed test counts while a matrix is streamed, and snapshots them at the
+     * cut-off of each requested triggering mode
+     */
+    private static final class PrefixSpectrumBuilder implements GzoltarMatrixReader.TestVisitor {
+        private final Set<TriggeringMode> pending;
 
-        int totalFailedTests = (int) executedTests.stream()
-                .filter(executedTest -> executedTest.getResult() == Failed)
-                .count();
+        private final boolean isCompleteRequested;
 
-        int totalPassedTests = totalTests - totalFailedTests;
+        private final Map<TriggeringMode, CounterSnapshot> snapshots = new EnumMap<>(TriggeringMode.class);
 
-        List<Entity> entities = new ArrayList<>(totalLocations);
+        private int[] failedTests;
+        private int[] passedTests;
+        private int numberOfTests;
+        private int failedTestsSoFar;
+        private int firstFailedTestIndex = -1;
 
-        for (int i=0; i<totalLocations; i++) {
+        private PrefixSpectrumBuilder(Set<TriggeringMode> triggeringModes) {
+            this.pending = EnumSet.noneOf(TriggeringMode.class);
+            this.pending.addAll(triggeringModes);
+            this.isCompleteRequested = this.pending.remove(TriggeringMode.COMPLETE);
+        }
 
-            int passedTests = 0;
-            int failedTests = 0;
+        @Override
+        public boolean visit(int testIndex, int[] coveredLocations, int coveredCount, int numberOfLocations,
+                             boolean failed) {
+            if (failedTests == null) {
+                failedTests = new int[numberOfLocations];
+                passedTests = new int[numberOfLocations];
+            }
 
-            for (Test executedTest : executedTests) {
-                boolean isLocationCovered = executedTest.getCoverageVector().get(i);
+            int[] counters = failed ? failedTests : passedTests;
+            for (int i=0; i<coveredCount; i++) {
+                counters[coveredLocations[i]]++;
+            }
 
-                if (!isLocationCovered) {
-                    continue;
-                }
+            numberOfTests++;
 
-                var testResult = executedTest.getResult();
+            if (failed) {
+                failedTestsSoFar++;
+                if (firstFailedTestIndex == -1) {
+                    firstFailedTestIndex = testIndex;
+                }
+            }
 
-                if (testResult == Passed) {
-                    passedTests++;
-                } else {
-                    failedTests++;
+            for (var it = pending.iterator(); it.hasNext(); ) {
+                var triggeringMode = it.next();
+                if (triggeringMode.getCutOff().isLastTest(testIndex, failed, failedTestsSoFar, firstFailedTestIndex)) {
+                    snapshots.put(triggeringMode, snapshot());
+                    it.remove();
                 }
             }
 
-            var entity = ImmutableEntity.builder()
-                    .id(i)
-                    .numberOfFailedTests(failedTests)
-                    .numberOfPassedTests(passedTests)
-                    .fQN(fqnMappings.get(i))
-                    .build();
+            return isCompleteRequested || !pending.isEmpty();
+        }
 
-            entities.add(entity);
+        private void completeTestSet() {
+            if (isCompleteRequested && numberOfTests > 0) {
+                snapshots.put(TriggeringMode.COMPLETE, new CounterSnapshot(failedTests, passedTests,
+                        failedTestsSoFar, numberOfTests - failedTestsSoFar));
+            }
         }
 
-        return ImmutableSpectrum.builder()
-                .bug(bug)
-                .triggeringMode(triggeringMode)
-                .project(bug.getProject())
-                .entities(entities)
-                .totalOfFailedTests(totalFailedTests)
-                .totalOfPassedTests(totalPassedTests)
-                .build();
+        private CounterSnapshot snapshot() {
+            return new CounterSnapshot(failedTests.clone(), passedTests.clone(), failedTestsSoFar,
+                    numberOfTests - failedTestsSoFar);
+        }
     }
 }
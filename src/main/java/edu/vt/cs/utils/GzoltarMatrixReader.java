@@ -0,0 +1,124 @@
+package edu.vt.cs.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Single-pass, byte-level reader of a gzoltar matrix file.
+ * Each line of the file is a test: a '0'/'1' coverage flag per location, then '+' (passed) or '-' (failed).
+ * Bytes are recognised directly from a buffered channel, so no line or token objects are ever created;
+ * covered locations of the current test are handed to a {@link TestVisitor} as soon as its line ends.
+ */
+public final class GzoltarMatrixReader {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private static final int NO_RESULT = 0;
+    private static final int PASSED = 1;
+    private static final int FAILED = 2;
+
+    @FunctionalInterface
+    public interface TestVisitor {
+        /**
+         * Called once per test, in file order
+         * @param testIndex index of this test in the matrix
+         * @param coveredLocations locations covered by this test, ascending; the array is reused between calls
+         * @param coveredCount number of valid entries in coveredLocations
+         * @param numberOfLocations total locations of the program snapshot
+         * @param failed whether this test failed
+         * @return false to stop reading the rest of the file
+         */
+        boolean visit(int testIndex, int[] coveredLocations, int coveredCount, int numberOfLocations, boolean failed);
+    }
+
+    private final TestVisitor visitor;
+
+    private int[] covered = new int[256];
+    private int coveredCount;
+    private int column;
+    private int result = NO_RESULT;
+    private int numberOfLocations = -1;
+    private int numberOfTests;
+
+    private GzoltarMatrixReader(TestVisitor visitor) {
+        this.visitor = visitor;
+    }
+
+    /**
+     * @return number of tests visited
+     */
+    public static int read(Path matrixPath, TestVisitor visitor) throws IOException {
+        try (var channel = FileChannel.open(matrixPath, StandardOpenOption.READ)) {
+            return read(channel, visitor);
+        }
+    }
+
+    /**
+     * @return number of tests visited
+     */
+    public static int read(ReadableByteChannel channel, TestVisitor visitor) throws IOException {
+        var reader = new GzoltarMatrixReader(visitor);
+        reader.readAll(channel);
+        return reader.numberOfTests;
+    }
+
+    private void readAll(ReadableByteChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        byte[] bytes = buffer.array();
+
+        while (channel.read(buffer) != -1) {
+            int limit = buffer.position();
+            for (int p=0; p<limit; p++) {
+                switch (bytes[p]) {
+                    case '1' -> {
+                        if (coveredCount == covered.length) {
+                            covered = Arrays.copyOf(covered, covered.length * 2);
+                        }
+                        covered[coveredCount++] = column++;
+                    }
+                    case '0' -> column++;
+                    case '+' -> result = PASSED;
+                    case '-' -> result = FAILED;
+                    case ' ', '\t', '\r' -> { }
+                    case '\n' -> {
+                        if (!endOfTest()) {
+                            return;
+                        }
+                    }
+                    default -> throw new IOException("Unexpected byte '" + (char) bytes[p] + "' at test "
+                            + numberOfTests + ", location " + column);
+                }
+            }
+            buffer.clear();
+        }
+
+        endOfTest();
+    }
+
+    private boolean endOfTest() throws IOException {
+        if (result == NO_RESULT) {
+            if (column == 0) {
+                return true; // blank line
+            }
+            throw new IOException("Missing test result at test " + numberOfTests);
+        }
+
+        if (numberOfLocations == -1) {
+            numberOfLocations = column;
+        } else if (column != numberOfLocations) {
+            throw new IOException("Test " + numberOfTests + " has " + column + " locations, expected "
+                    + numberOfLocations);
+        }
+
+        boolean next = visitor.visit(numberOfTests++, covered, coveredCount, numberOfLocations, result == FAILED);
+
+        coveredCount = 0;
+        column = 0;
+        result = NO_RESULT;
+        return next;
+    }
+}
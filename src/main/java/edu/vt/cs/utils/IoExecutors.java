@@ -0,0 +1,137 @@
+package edu.vt.cs.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors for stages dominated by blocking file I/O (parsing gzoltar files, writing intermediate results,
+ * decompressing tarballs), kept apart from the core-sized pools doing CPU-bound ranking.
+ * On a JDK with virtual threads (21+) every task gets its own virtual thread and a semaphore bounds how many run at
+ * once, so a slow or network-mounted disk never pins platform threads; otherwise a fixed pool of platform threads
+ * of the same size is used.
+ * Can be tuned with -Dsbfl.io.concurrency=n and forced to platform threads with -Dsbfl.io.virtual=false.
+ */
+public final class IoExecutors {
+    private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    public static final int DEFAULT_IO_CONCURRENCY = Integer.getInteger("sbfl.io.concurrency",
+            4 * Runtime.getRuntime().availableProcessors());
+
+    private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findVirtualThreadFactoryMethod();
+
+    private IoExecutors() {
+    }
+
+    public static ExecutorService newIoExecutor() {
+        return newIoExecutor(DEFAULT_IO_CONCURRENCY);
+    }
+
+    /**
+     * @param maxConcurrentIo maximum number of tasks running at the same time
+     */
+    public static ExecutorService newIoExecutor(int maxConcurrentIo) {
+        if (maxConcurrentIo < 1) {
+            throw new IllegalArgumentException("I/O concurrency must be positive, got " + maxConcurrentIo);
+        }
+
+        if (NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null) {
+            try {
+                var virtualThreads = (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+                return new BoundedExecutorService(virtualThreads, maxConcurrentIo);
+            } catch (ReflectiveOperationException e) {
+                LOG.warn("Failed to create virtual threads, falling back to platform threads", e);
+            }
+        }
+
+        return Executors.newFixedThreadPool(maxConcurrentIo, new IoThreadFactory());
+    }
+
+    public static boolean isUsingVirtualThreads() {
+        return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    private static Method findVirtualThreadFactoryMethod() {
+        if (!Boolean.parseBoolean(System.getProperty("sbfl.io.virtual", "true"))) {
+            return null;
+        }
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static final class IoThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            var thread = new Thread(runnable, "sbfl-io-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * Runs every task on the delegate, at most maxConcurrent at a time. Waiting for a permit is cheap for
+     * virtual threads, which is the only delegate this is used with.
+     */
+    private static final class BoundedExecutorService extends AbstractExecutorService {
+        private final ExecutorService delegate;
+
+        private final Semaphore permits;
+
+        BoundedExecutorService(ExecutorService delegate, int maxConcurrent) {
+            this.delegate = delegate;
+            this.permits = new Semaphore(maxConcurrent);
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            delegate.execute(() -> {
+                permits.acquireUninterruptibly();
+                try {
+                    command.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package edu.vt.cs.utils;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Parsing of a bug's coverage data into the spectra of its triggering modes, see {@link CoverageParser}
+ */
+@Name("edu.vt.cs.Parse")
+@Label("Parse Spectra")
+@Description("One pass over a bug's coverage matrix, building the spectra of the requested triggering modes")
+public class ParseEvent extends WorkUnitEvent {
+}
@@ -0,0 +1,14 @@
+package edu.vt.cs.utils;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Ranking of a spectrum's entities by an algorithm, see {@link edu.vt.cs.ranking.Ranker}
+ */
+@Name("edu.vt.cs.Rank")
+@Label("Rank Spectrum")
+@Description("Scoring and ranking of a spectrum's entities by one ranking algorithm")
+public class RankEvent extends WorkUnitEvent {
+}
@@ -0,0 +1,191 @@
+package edu.vt.cs.utils;
+
+import edu.vt.cs.evaluation.TriggeringMode;
+import edu.vt.cs.models.Bug;
+import edu.vt.cs.models.ColumnarSpectrum;
+import edu.vt.cs.models.FqnTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * Content-addressed cache of the columnar spectra of all triggering modes of a bug, one binary file per
+ * {@link ContentHash} of the bug's matrix and spectra files. Coverage files never change, so their spectra are
+ * parsed once and later runs map the cached counts instead of streaming the matrix again.
+ * A file is written to a temporary name and moved into place, so a crash or a concurrent run never leaves a partial
+ * entry behind. Layout, all big-endian:
+ * <pre>
+ * header: int magic, int version, int #triggering modes
+ * int #bytes of the FQN table, then the table as UTF-8 lines, mapped in place as an {@link FqnTable}
+ * each triggering mode, in mode order: int n (-1 if the mode's spectrum is empty), int total failed tests,
+ * int total passed tests, int[n] failed tests, int[n] passed tests
+ * </pre>
+ */
+public class SpectrumCache {
+    private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final int MAGIC = 0x53424653;
+
+    private static final int VERSION = 2;
+
+    private static final String FILE_TYPE = ".spectra";
+
+    private final Path cacheDir;
+
+    public SpectrumCache(Path cacheDir) {
+        this.cacheDir = cacheDir;
+    }
+
+    /**
+     * @param hash content hash of the bug's coverage files, see {@link ContentHash#sha256}; the cache is bypassed if
+     *             it is null
+     * @param bytesParsed given the size of the bug's coverage files whenever they are parsed, i.e. not on a cache hit
+     * @return columnar spectrum of every triggering mode of the bug, from the cache if it has an entry for the hash,
+     * otherwise parsed by {@link CoverageParser} and added to the cache
+     * @throws IOException if the coverage data cannot be parsed, as opposed to a bug without spectra; failures are
+     * not cached, so the bug is parsed again next time
+     */
+    public Map<TriggeringMode, ColumnarSpectrum> parseColumnar(Bug bug, String hash, String gzoltarsPath,
+                                                               LongConsumer bytesParsed) throws IOException {
+        if (hash == null) {
+            var spectra = parse(bug, gzoltarsPath);
+            bytesParsed.accept(coverageBytes(bug, gzoltarsPath));
+            return spectra;
+        }
+
+        var path = cacheDir.resolve(hash + FILE_TYPE);
+        if (Files.exists(path)) {
+            try {
+                return read(path, bug);
+            } catch (Exception e) {
+                LOG.warn("Ignoring invalid spectrum cache entry {} of bug = {}", path, bug.getName(), e);
+            }
+        }
+
+        var spectra = parse(bug, gzoltarsPath);
+        bytesParsed.accept(coverageBytes(bug, gzoltarsPath));
+
+        try {
+            write(path, spectra);
+        } catch (IOException e) {
+            LOG.error("Failed to cache spectra of bug = {} to {}", bug.getName(), path, e);
+        }
+        return spectra;
+    }
+
+    private static Map<TriggeringMode, ColumnarSpectrum> parse(Bug bug, String gzoltarsPath) throws IOException {
+        try {
+            return CoverageParser.readColumnar(bug, EnumSet.allOf(TriggeringMode.class), gzoltarsPath);
+        } catch (RuntimeException e) {
+            throw new IOException("Malformed coverage data of bug = " + bug.getName(), e);
+        }
+    }
+
+    /**
+     * @return size of the bug's coverage files, 0 if they cannot be read
+     */
+    private static long coverageBytes(Bug bug, String gzoltarsPath) {
+        long bytes = 0;
+        for (Path path : ContentHash.coverageFiles(bug, gzoltarsPath)) {
+            try {
+                bytes += Files.size(path);
+            } catch (IOException e) {
+                LOG.debug("Cannot read size of {}", path, e);
+            }
+        }
+        return bytes;
+    }
+
+    static void write(Path path, Map<TriggeringMode, ColumnarSpectrum> spectra) throws IOException {
+        var fqns = spectra.values().stream()
+                .filter(spectrum -> !spectrum.isEmpty())
+                .map(ColumnarSpectrum::getFqns)
+                .findFirst()
+                .orElse(FqnTable.empty())
+                .toBytes();
+
+        long size = 4L * Integer.BYTES + fqns.remaining();
+        for (TriggeringMode triggeringMode : TriggeringMode.values()) {
+            var spectrum = spectra.get(triggeringMode);
+            size += 3L * Integer.BYTES + (spectrum == null ? 0 : 2L * Integer.BYTES * spectrum.size());
+        }
+
+        var buffer = ByteBuffer.allocate(Math.toIntExact(size));
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(TriggeringMode.values().length);
+        buffer.putInt(fqns.remaining()).put(fqns);
+        for (TriggeringMode triggeringMode : TriggeringMode.values()) {
+            var spectrum = spectra.get(triggeringMode);
+            if (spectrum == null || spectrum.isEmpty()) {
+                buffer.putInt(-1).putInt(0).putInt(0);
+                continue;
+            }
+            buffer.putInt(spectrum.size())
+                    .putInt(spectrum.getTotalOfFailedTests())
+                    .putInt(spectrum.getTotalOfPassedTests());
+            buffer.asIntBuffer().put(spectrum.getFailedTests()).put(spectrum.getPassedTests());
+            buffer.position(buffer.position() + 2 * Integer.BYTES * spectrum.size());
+        }
+        buffer.flip();
+
+        Files.createDirectories(path.getParent());
+        var tmpPath = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+        try {
+            try (var channel = FileChannel.open(tmpPath, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            Files.move(tmpPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmpPath);
+        }
+    }
+
+    static Map<TriggeringMode, ColumnarSpectrum> read(Path path, Bug bug) throws IOException {
+        ByteBuffer buffer;
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.remaining() < 4 * Integer.BYTES || buffer.getInt() != MAGIC || buffer.getInt() != VERSION
+                || buffer.getInt() != TriggeringMode.values().length) {
+            throw new IOException("Not a spectrum cache file of version " + VERSION + ": " + path);
+        }
+
+        int fqnBytes = buffer.getInt();
+        var fqnTable = FqnTable.of(buffer.slice(buffer.position(), fqnBytes));
+        buffer.position(buffer.position() + fqnBytes);
+
+        Map<TriggeringMode, ColumnarSpectrum> spectra = new EnumMap<>(TriggeringMode.class);
+        for (TriggeringMode triggeringMode : TriggeringMode.values()) {
+            int n = buffer.getInt();
+            int totalOfFailedTests = buffer.getInt();
+            int totalOfPassedTests = buffer.getInt();
+            if (n < 0) {
+                spectra.put(triggeringMode, ColumnarSpectrum.empty(bug, triggeringMode));
+                continue;
+            }
+
+            int[] failedTests = new int[n];
+            int[] passedTests = new int[n];
+            buffer.asIntBuffer().get(failedTests).get(passedTests);
+            buffer.position(buffer.position() + 2 * Integer.BYTES * n);
+            spectra.put(triggeringMode, new ColumnarSpectrum(bug, triggeringMode, failedTests, passedTests,
+                    totalOfFailedTests, totalOfPassedTests, fqnTable));
+        }
+
+        return spectra;
+    }
+}
@@ -0,0 +1,191 @@
+package edu.vt.cs.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.vt.cs.models.Bug;
+import edu.vt.cs.models.ImmutableBug;
+import edu.vt.cs.models.Project;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static edu.vt.cs.models.Constants.MATRIX_FILE_NAME;
+import static edu.vt.cs.models.Constants.SPECTRA_FILE_NAME;
+
+/**
+ * Writes synthetic coverage data shaped like the gzoltar data under {@link edu.vt.cs.models.Constants#GZOLT_ROOT}:
+ * a gzoltarsDir/project/bugId directory with a matrix and a spectra file per bug, plus the bugs' JSON as read by
+ * {@link BugParser#derBugs}, so that evaluation can be run offline at any size.
+ * Each test covers each entity with probability {@code coverageDensity}, a {@code failingTestRatio} share of the
+ * tests fail (at least one), and every failing test covers at least one of the bug's {@code numberOfFaults} faulty
+ * entities, which are its ground-truth locations.
+ */
+public class SyntheticSpectrumGenerator {
+    private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final int numberOfTests;
+
+    private final int numberOfEntities;
+
+    private final double coverageDensity;
+
+    private final double failingTestRatio;
+
+    private final int numberOfFaults;
+
+    private final long seed;
+
+    public SyntheticSpectrumGenerator(int numberOfTests, int numberOfEntities, double coverageDensity,
+                                      double failingTestRatio, int numberOfFaults, long seed) {
+        if (numberOfTests < 1 || numberOfEntities < 1) {
+            throw new IllegalArgumentException("Need at least one test and one entity, got " + numberOfTests
+                    + " tests and " + numberOfEntities + " entities");
+        }
+        if (coverageDensity < 0 || coverageDensity > 1 || failingTestRatio < 0 || failingTestRatio > 1) {
+            throw new IllegalArgumentException("Coverage density and failing test ratio must be in [0, 1], got "
+                    + coverageDensity + " and " + failingTestRatio);
+        }
+        if (numberOfFaults < 1 || numberOfFaults > numberOfEntities) {
+            throw new IllegalArgumentException("Number of faults must be in [1, " + numberOfEntities + "], got "
+                    + numberOfFaults);
+        }
+        this.numberOfTests = numberOfTests;
+        this.numberOfEntities = numberOfEntities;
+        this.coverageDensity = coverageDensity;
+        this.failingTestRatio = failingTestRatio;
+        this.numberOfFaults = numberOfFaults;
+        this.seed = seed;
+    }
+
+    /**
+     * Generate bugs 1..numberOfBugs, spread over all projects, and write their JSON
+     */
+    public List<Bug> generate(int numberOfBugs, Path gzoltarsDir, Path bugsJsonPath) throws IOException {
+        List<Bug> bugs = new ArrayList<>(numberOfBugs);
+        for (int i=0; i<numberOfBugs; i++) {
+            bugs.add(generate(Project.values()[i % Project.values().length], i + 1, gzoltarsDir));
+        }
+
+        if (bugsJsonPath.getParent() != null) {
+            Files.createDirectories(bugsJsonPath.getParent());
+        }
+        Files.writeString(bugsJsonPath, objectMapper.writeValueAsString(bugs), Charset.defaultCharset());
+        return bugs;
+    }
+
+    /**
+     * Write the matrix and spectra files of one bug, seeded by the generator's seed and the bug
+     * @return the bug, its locations being its faulty entities
+     */
+    public Bug generate(Project project, int bugId, Path gzoltarsDir) throws IOException {
+        var random = new SplittableRandom(seed * 31 + project.ordinal() * 100_003L + bugId);
+        var bugDir = gzoltarsDir.resolve(project.name()).resolve(String.valueOf(bugId));
+        Files.createDirectories(bugDir);
+
+        List<String> fqns = new ArrayList<>(numberOfEntities);
+        try (var out = Files.newBufferedWriter(bugDir.resolve(SPECTRA_FILE_NAME))) {
+            for (int i=0; i<numberOfEntities; i++) {
+                var fqn = toFqn(project, i);
+                fqns.add(fqn);
+                out.write(fqn);
+                out.newLine();
+            }
+        }
+
+        int[] faultIds = random.ints(0, numberOfEntities).distinct().limit(numberOfFaults).toArray();
+        writeMatrix(bugDir.resolve(MATRIX_FILE_NAME), faultIds, random);
+
+        List<String> locations = new ArrayList<>(numberOfFaults);
+        for (int id : faultIds) {
+            var fqn = fqns.get(id);
+            int line = fqn.indexOf('#');
+            locations.add(fqn.substring(0, line).replace('.', '/') + ".java" + fqn.substring(line) + "#  synthetic fault");
+        }
+
+        LOG.info("Generated bug = {}::{} with {} tests and {} entities", project.name(), bugId, numberOfTests,
+                numberOfEntities);
+        return ImmutableBug.of(project, bugId, locations);
+    }
+
+    /**
+     * Rows are filled from a template of uncovered flags, and covered entities are drawn by geometric jumps, so
+     * writing a sparse row costs its number of covered entities rather than one random draw per entity
+     */
+    private void writeMatrix(Path matrixPath, int[] faultIds, SplittableRandom random) throws IOException {
+        byte[] template = new byte[2 * numberOfEntities + 2];
+        for (int i=0; i<numberOfEntities; i++) {
+            template[2 * i] = '0';
+            template[2 * i + 1] = ' ';
+        }
+        template[template.length - 1] = '\n';
+        byte[] row = new byte[template.length];
+
+        int alwaysFailing = random.nextInt(numberOfTests);
+        double logOfMiss = Math.log1p(-coverageDensity);
+
+        try (var out = new BufferedOutputStream(Files.newOutputStream(matrixPath), 1 << 16)) {
+            for (int t=0; t<numberOfTests; t++) {
+                System.arraycopy(template, 0, row, 0, row.length);
+
+                if (coverageDensity >= 1) {
+                    for (int i=0; i<numberOfEntities; i++) {
+                        row[2 * i] = '1';
+                    }
+                } else if (coverageDensity > 0) {
+                    long i = -1;
+                    while (true) {
+                        i += 1 + (long) (Math.log(1 - random.nextDouble()) / logOfMiss);
+                        if (i >= numberOfEntities) {
+                            break;
+                        }
+                        row[2 * (int) i] = '1';
+                    }
+                }
+
+                boolean failed = t == alwaysFailing || random.nextDouble() < failingTestRatio;
+                if (failed) {
+                    row[2 * faultIds[random.nextInt(faultIds.length)]] = '1';
+                }
+                row[row.length - 2] = failed ? (byte) '-' : (byte) '+';
+                out.write(row);
+            }
+        }
+    }
+
+    private static String toFqn(Project project, int id) {
+        return "org.synthetic." + project.name().toLowerCase() + ".p" + (id % 97) + ".C" + (id / 97 % 1000)
+                + "#" + (1 + id / 97_000 * 1000 + id % 1000);
+    }
+
+    /**
+     * Usage: destDir numberOfBugs numberOfTests numberOfEntities coverageDensity failingTestRatio numberOfFaults [seed]
+     * Writes destDir/gzoltars and destDir/synthetic_bugs.json, e.g. for
+     * {@code new Evaluator(destDir + "/gzoltars").evalAll(false, BugParser.derBugs(json), bugType)}
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 7) {
+            LOG.error("Usage: destDir numberOfBugs numberOfTests numberOfEntities coverageDensity failingTestRatio "
+                    + "numberOfFaults [seed]");
+            return;
+        }
+
+        var destDir = Paths.get(args[0]);
+        var generator = new SyntheticSpectrumGenerator(Integer.parseInt(args[2]), Integer.parseInt(args[3]),
+                Double.parseDouble(args[4]), Double.parseDouble(args[5]), Integer.parseInt(args[6]),
+                args.length > 7 ? Long.parseLong(args[7]) : 42);
+        var bugs = generator.generate(Integer.parseInt(args[1]), destDir.resolve("gzoltars"),
+                destDir.resolve("synthetic_bugs.json"));
+
+        LOG.info("Generated {} bugs in {}", bugs.size(), destDir);
+    }
+}
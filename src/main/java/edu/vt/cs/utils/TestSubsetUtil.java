@@ -3,8 +3,7 @@ package edu.vt.cs.utils;
 import edu.vt.cs.evaluation.TriggeringMode;
 import edu.vt.cs.models.Bug;
 import edu.vt.cs.models.BugType;
-import edu.vt.cs.models.Result;
-import edu.vt.cs.models.Test;
+import edu.vt.cs.models.CoverageMatrix;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -12,7 +11,6 @@ import java.io.IOException;
 import java.lang.invoke.MethodHandles;
 import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -20,63 +18,76 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.function.Function;
 import java.util.function.UnaryOperator;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 public class TestSubsetUtil {
     private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
-    public static final Function<Integer, UnaryOperator<List<Test>>> getFirstKthFailedTestGenFn = k -> tests -> {
-        int indexOfKthFailedTest = -1;
-        int count = 0;
-
-        boolean found = false;
+    /**
+     * Decides, while tests are visited in execution order, whether the current test is the last one of a subset.
+     * This lets a subset be cut off on the fly (e.g. while streaming a matrix file) without knowing the whole test set.
+     */
+    @FunctionalInterface
+    public interface SubsetCutOff {
+        /**
+         * @param testIndex index of the current test
+         * @param failed whether the current test failed
+         * @param failedTestsSoFar failed tests among tests [0..testIndex]
+         * @param firstFailedTestIndex index of the first failed test so far, -1 if none
+         */
+        boolean isLastTest(int testIndex, boolean failed, int failedTestsSoFar, int firstFailedTestIndex);
+    }
 
-        for (int i=0; i<tests.size(); i++) {
-            if (tests.get(i).getResult() == Result.Failed) {
-                indexOfKthFailedTest = i;
-                count++;
-                if (k == count) {
-                    found = true;
-                    break;
-                }
-            }
-        }
+    /**
+     * The complete test set is never cut off
+     */
+    public static final SubsetCutOff COMPLETE_TEST_SET = (testIndex, failed, failedTestsSoFar, firstFailedTestIndex) -> false;
 
-        if (indexOfKthFailedTest == -1) {
-            throw new RuntimeException("There is no failed test");
-        }
+    public static final Function<Integer, SubsetCutOff> getFirstKthFailedTestCutOffFn = k ->
+            (testIndex, failed, failedTestsSoFar, firstFailedTestIndex) -> failed && failedTestsSoFar == k;
 
-        return found ? tests.subList(0, indexOfKthFailedTest + 1) : List.of();
-    };
+    public static final Function<Integer, SubsetCutOff> getFirstKthExtraAfterFirstFailedTestCutOffFn = k ->
+            (testIndex, failed, failedTestsSoFar, firstFailedTestIndex) -> firstFailedTestIndex != -1
+                    && testIndex == firstFailedTestIndex + k;
 
-    public static final Function<Integer, UnaryOperator<List<Test>>> getFirstKthExtraAfterFirstFailedTestGenFn = k -> tests -> {
-        int indexOfKthFailedTest = -1;
+    /**
+     * Turn a cut-off rule into a function selecting the matching prefix of a test set.
+     * The prefix is empty if the test set ends before the cut-off is reached.
+     */
+    public static UnaryOperator<CoverageMatrix> toSubSetFn(SubsetCutOff cutOff) {
+        if (cutOff == COMPLETE_TEST_SET) {
+            return tests -> tests;
+        }
 
-        for (int i=0; i<tests.size(); i++) {
-            if (tests.get(i).getResult() == Result.Failed) {
-                indexOfKthFailedTest = i;
-                break;
+        return tests -> {
+            int failedTestsSoFar = 0;
+            int firstFailedTestIndex = -1;
+
+            for (int i=0; i<tests.getNumberOfTests(); i++) {
+                boolean failed = tests.isFailed(i);
+                if (failed) {
+                    failedTestsSoFar++;
+                    if (firstFailedTestIndex == -1) {
+                        firstFailedTestIndex = i;
+                    }
+                }
+                if (cutOff.isLastTest(i, failed, failedTestsSoFar, firstFailedTestIndex)) {
+                    return tests.prefix(i + 1);
+                }
             }
-        }
 
-        if (indexOfKthFailedTest == -1) {
-            throw new RuntimeException("There is no failed test");
-        }
+            if (firstFailedTestIndex == -1) {
+                throw new RuntimeException("There is no failed test");
+            }
 
-        int kIndex = indexOfKthFailedTest + k;
+            return tests.prefix(0);
+        };
+    }
 
-        return kIndex < tests.size() ? tests.subList(0, kIndex + 1) : List.of();
-    };
+    public static final Function<Integer, UnaryOperator<CoverageMatrix>> getFirstKthFailedTestGenFn = k ->
+            toSubSetFn(getFirstKthFailedTestCutOffFn.apply(k));
 
-    public static <T> List<List<T>> divideListBySizeK(List<T> lst, int k) {
-        return new ArrayList<>(IntStream.range(0, lst.size())
-                .boxed()
-                .collect(Collectors.groupingBy(
-                        i -> i / k,
-                        Collectors.mapping(lst::get, Collectors.toList())))
-                .values());
-    }
+    public static final Function<Integer, UnaryOperator<CoverageMatrix>> getFirstKthExtraAfterFirstFailedTestGenFn = k ->
+            toSubSetFn(getFirstKthExtraAfterFirstFailedTestCutOffFn.apply(k));
 
     private static final Map<Bug, Integer> cache = new ConcurrentHashMap<>();
 
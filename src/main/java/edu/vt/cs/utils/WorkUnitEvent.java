@@ -0,0 +1,60 @@
+package edu.vt.cs.utils;
+
+import edu.vt.cs.evaluation.TriggeringMode;
+import edu.vt.cs.models.Bug;
+import edu.vt.cs.ranking.RankingAlgorithm;
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * Java Flight Recorder event of one unit of work on a bug, so that a recording shows the latency and allocations of
+ * each bug, mode and algorithm next to GC and thread data. Events are used as
+ * <pre>
+ * var event = new RankEvent();
+ * event.begin();
+ * ... the work ...
+ * event.commit(bug, triggeringMode, rankingAlgorithm, entities, tests);
+ * </pre>
+ * and cost next to nothing when no recording enables them: the fields are only set if the event is committed.
+ */
+@Category({"SBFL"})
+public abstract class WorkUnitEvent extends Event {
+
+    @Label("Project")
+    String project;
+
+    @Label("Bug Id")
+    int bugId;
+
+    @Label("Triggering Mode")
+    String triggeringMode;
+
+    @Label("Ranking Algorithm")
+    String rankingAlgorithm;
+
+    @Label("Entity Count")
+    int entityCount;
+
+    @Label("Test Count")
+    int testCount;
+
+    /**
+     * End the event and commit it, if it is enabled and lasted longer than its threshold
+     * @param triggeringMode null if the work is not about one mode
+     * @param rankingAlgorithm null if the work is not about one algorithm
+     */
+    public void commit(Bug bug, TriggeringMode triggeringMode, RankingAlgorithm rankingAlgorithm, int entityCount,
+                       int testCount) {
+        end();
+        if (shouldCommit()) {
+            this.project = bug.getProject().name();
+            this.bugId = bug.getBugId();
+            this.triggeringMode = triggeringMode == null ? null : triggeringMode.name();
+            this.rankingAlgorithm = rankingAlgorithm == null ? null : rankingAlgorithm.name();
+            this.entityCount = entityCount;
+            this.testCount = testCount;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package edu.vt.cs.evaluation;
+
+import edu.vt.cs.models.ImmutableBug;
+import edu.vt.cs.models.Project;
+import edu.vt.cs.ranking.RankingAlgorithm;
+import edu.vt.cs.utils.ContentHash;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CheckpointTest {
+
+    @Test
+    void resumeFromLogUntilCoverageFilesChange(@TempDir Path dir) throws IOException {
+        var bug = ImmutableBug.of(Project.Lang, 7, List.of("a/B.java#1"));
+        var gzoltarsPath = dir.resolve("gzoltars");
+        var files = ContentHash.coverageFiles(bug, gzoltarsPath.toString());
+        Files.createDirectories(files.get(0).getParent());
+        Files.writeString(files.get(0), "1 0 +\n");
+        Files.writeString(files.get(1), "a.B#1\n");
+
+        var evalResults = List.<EvalResult>of(
+                ImmutableEvalResult.of(Project.Lang, 7, TriggeringMode.COMPLETE, RankingAlgorithm.DICE,
+                        Metrics.fromRanks(List.of(1, 4, 12))),
+                ImmutableEvalResult.of(Project.Lang, 7, TriggeringMode.COMPLETE, RankingAlgorithm.WONG3,
+                        ImmutableMetrics.of(0, 0, 0, 0.0, 0.0, null)));
+
+        var logPath = dir.resolve("checkpoint.log");
+        String hash;
+        try (var checkpoint = new Checkpoint(logPath)) {
+            hash = checkpoint.hash(bug, gzoltarsPath.toString());
+            checkpoint.record(bug, hash, evalResults);
+            assertFalse(checkpoint.isComplete(bug, hash));
+            checkpoint.recordComplete(bug, hash);
+        }
+
+        try (var checkpoint = new Checkpoint(logPath)) {
+            assertEquals(hash, checkpoint.hash(bug, gzoltarsPath.toString()));
+            assertTrue(checkpoint.isComplete(bug, hash));
+            assertEquals(evalResults, checkpoint.getResults(bug, hash));
+
+            // same coverage files, so the same content hash, but other locations
+            var relocatedBug = ImmutableBug.of(Project.Lang, 7, List.of("a/C.java#1"));
+            assertEquals(hash, checkpoint.hash(relocatedBug, gzoltarsPath.toString()));
+            assertFalse(checkpoint.isComplete(relocatedBug, hash));
+            assertTrue(checkpoint.getResults(relocatedBug, hash).isEmpty());
+
+            Files.writeString(files.get(0), "1 1 0 -\n");
+            var newHash = checkpoint.hash(bug, gzoltarsPath.toString());
+            assertNotEquals(hash, newHash);
+            assertFalse(checkpoint.isComplete(bug, newHash));
+            assertTrue(checkpoint.getResults(bug, newHash).isEmpty());
+        }
+    }
+}
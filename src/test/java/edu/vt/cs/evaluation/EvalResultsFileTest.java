@@ -0,0 +1,49 @@
+package edu.vt.cs.evaluation;
+
+import edu.vt.cs.models.Project;
+import edu.vt.cs.ranking.RankingAlgorithm;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EvalResultsFileTest {
+
+    @Test
+    void writeThenReadBack(@TempDir Path dir) throws IOException {
+        var evalResults = List.<EvalResult>of(
+                ImmutableEvalResult.of(Project.Lang, 7, TriggeringMode.COMPLETE, RankingAlgorithm.DICE,
+                        Metrics.fromRanks(List.of(1, 4, 12, Integer.MAX_VALUE))),
+                ImmutableEvalResult.of(Project.Math, 105, TriggeringMode.EXTRA_PASSED_TESTS_10, RankingAlgorithm.WONG3,
+                        Metrics.fromRanks(List.of(3))),
+                ImmutableEvalResult.of(Project.Closure, 1, null, null,
+                        ImmutableMetrics.of(0, 0, 0, 0.0, 0.0, null)));
+
+        var path = dir.resolve("results.bin");
+        EvalResultsFile.write(path, evalResults);
+
+        assertEquals(evalResults, EvalResultsFile.read(path));
+        assertTrue(Files.size(path) < evalResults.stream().mapToInt(r -> r.getCsvFormat().length() + 1).sum());
+    }
+
+    @Test
+    void truncatedFileIsRejected(@TempDir Path dir) throws IOException {
+        var path = dir.resolve("results.bin");
+        EvalResultsFile.write(path, List.of(ImmutableEvalResult.of(Project.Lang, 7, TriggeringMode.COMPLETE,
+                RankingAlgorithm.DICE, Metrics.fromRanks(List.of(1, 4, 12)))));
+        var bytes = Files.readAllBytes(path);
+
+        for (int size : new int[] {bytes.length - 1, bytes.length - 3 * Integer.BYTES, 5 * Integer.BYTES + 2}) {
+            Files.write(path, Arrays.copyOf(bytes, size));
+            assertThrows(IOException.class, () -> EvalResultsFile.read(path), "size = " + size);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package edu.vt.cs.evaluation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.vt.cs.ranking.RankingAlgorithm;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EvaluationStatsTest {
+
+    @Test
+    void latenciesAreBucketedByPowersOfTwo() {
+        var latency = new EvaluationStats.Latency();
+        for (int i=1; i<=100; i++) {
+            latency.record(i * 1000L, 10);
+        }
+
+        var snapshot = latency.snapshot();
+        assertEquals(100, snapshot.getCount());
+        assertEquals(50_500, snapshot.getMeanNanos());
+        assertEquals(100_000, snapshot.getMaxNanos());
+        assertEquals(1000, snapshot.getAllocatedBytes());
+        // 50 000 is in [2^15, 2^16), 99 000 in [2^16, 2^17), capped by the max
+        assertEquals((1L << 16) - 1, snapshot.getP50Nanos());
+        assertEquals(100_000, snapshot.getP99Nanos());
+        assertTrue(snapshot.getP90Nanos() >= 90_000);
+    }
+
+    @Test
+    void countersAreReadableThroughJmxAndWrittenAsSummary(@TempDir Path dir) throws Exception {
+        var stats = new EvaluationStats(() -> 3);
+        stats.spectrumScheduled();
+        stats.spectrumStarted();
+        stats.recordRanking(RankingAlgorithm.values()[0], stats.start(), 42);
+        stats.record(EvaluationStats.Stage.METRICS, stats.start());
+        stats.spectrumEvaluated(1);
+        stats.addBytesRead(1024);
+        stats.bugEvaluated();
+
+        var objectName = new ObjectName("edu.vt.cs:type=EvaluationStats,name=" + ObjectName.quote("test"));
+        var server = ManagementFactory.getPlatformMBeanServer();
+        stats.register("test");
+        try {
+            assertEquals(42L, server.getAttribute(objectName, "EntitiesProcessed"));
+            assertEquals(3, server.getAttribute(objectName, "ResultQueueDepth"));
+            var latencies = (TabularData) server.getAttribute(objectName, "Latencies");
+            var rank = (CompositeData) latencies.get(new Object[] {"rank:" + RankingAlgorithm.values()[0].name()})
+                    .get("value");
+            assertEquals(1L, rank.get("count"));
+        } finally {
+            stats.unregister();
+        }
+        assertFalse(server.isRegistered(objectName));
+
+        var summaryPath = dir.resolve("stats.json");
+        stats.writeSummary(summaryPath);
+        var summary = new ObjectMapper().readTree(summaryPath.toFile());
+        assertEquals(1, summary.get("bugsEvaluated").asLong());
+        assertEquals(1024, summary.get("bytesRead").asLong());
+        assertEquals(3, summary.get("maxResultQueueDepth").asInt());
+        assertEquals(1, summary.get("latencies").get("rank").get("count").asLong());
+        assertEquals(0, summary.get("latencies").get("parse").get("count").asLong());
+    }
+}
@@ -0,0 +1,112 @@
+package edu.vt.cs.evaluation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MetricsCollectorTest {
+    private static final double TOLERANCE = 1e-9;
+
+    @Test
+    void sumsMatchRunningAverages() {
+        var metrics = randomMetrics(10_000);
+
+        var accumulator = new MetricsCollector.Accumulator();
+        metrics.forEach(accumulator::add);
+
+        assertClose(runningAverages(metrics), accumulator.toOverallMetrics());
+    }
+
+    @Test
+    void mergedAccumulatorsMatchSequentialAccumulation() {
+        var metrics = randomMetrics(10_000);
+
+        var sequential = new MetricsCollector.Accumulator();
+        metrics.forEach(sequential::add);
+
+        var merged = new MetricsCollector.Accumulator();
+        for (int from=0; from<metrics.size(); from+=997) {
+            var part = new MetricsCollector.Accumulator();
+            metrics.subList(from, Math.min(from + 997, metrics.size())).forEach(part::add);
+            merged = merged.merge(part);
+        }
+
+        assertClose(sequential.toOverallMetrics(), merged.toOverallMetrics());
+        assertClose(sequential.toOverallMetrics(), metrics.parallelStream().collect(new MetricsCollector()));
+        assertEquals(0, new MetricsCollector.Accumulator().merge(new MetricsCollector.Accumulator())
+                .toOverallMetrics().getTop1Pct());
+    }
+
+    private static List<Metrics> randomMetrics(int n) {
+        var random = new Random(42);
+        return IntStream.range(0, n)
+                .mapToObj(i -> Metrics.fromRanks(IntStream.range(0, 1 + random.nextInt(4))
+                        .mapToObj(l -> random.nextInt(8) == 0 ? Integer.MAX_VALUE : 1 + random.nextInt(30))
+                        .sorted()
+                        .toList()))
+                .toList();
+    }
+
+    /**
+     * Overall metrics as the collector computed them before the accumulator, updating each percentage as a running
+     * average on every element
+     */
+    private static OverallMetrics runningAverages(List<Metrics> metrics) {
+        int count = 0;
+        int top1 = 0;
+        int top5 = 0;
+        int top10 = 0;
+        double map = 0;
+        double mrr = 0;
+        double top1Pct = 0;
+        double top5Pct = 0;
+        double top10Pct = 0;
+        double mapPct = 0;
+        double mrrPct = 0;
+        for (Metrics m : metrics) {
+            int nextCount = count + 1;
+            top1Pct = (top1Pct * count + (m.getTop1() >= 1 ? 100.0 : 0.0)) / nextCount;
+            top5Pct = (top5Pct * count + (m.getTop5() >= 1 ? 100.0 : 0.0)) / nextCount;
+            top10Pct = (top10Pct * count + (m.getTop10() >= 1 ? 100.0 : 0.0)) / nextCount;
+            mapPct = (mapPct * count + m.getMap() * 100) / nextCount;
+            mrrPct = (mrrPct * count + m.getMrr() * 100) / nextCount;
+            top1 += m.getTop1();
+            top5 += m.getTop5();
+            top10 += m.getTop10();
+            map += m.getMap();
+            mrr += m.getMrr();
+            count = nextCount;
+        }
+        return ImmutableOverallMetrics.builder()
+                .top1(top1)
+                .top5(top5)
+                .top10(top10)
+                .map(map)
+                .mrr(mrr)
+                .top1Pct(top1Pct)
+                .top5Pct(top5Pct)
+                .top10Pct(top10Pct)
+                .mapPct(mapPct)
+                .mrrPct(mrrPct)
+                .count(count)
+                .build();
+    }
+
+    private static void assertClose(OverallMetrics expected, OverallMetrics actual) {
+        assertEquals(expected.getCount(), actual.getCount());
+        assertEquals(expected.getTop1(), actual.getTop1());
+        assertEquals(expected.getTop5(), actual.getTop5());
+        assertEquals(expected.getTop10(), actual.getTop10());
+        assertEquals(expected.getMap(), actual.getMap(), TOLERANCE * expected.getCount());
+        assertEquals(expected.getMrr(), actual.getMrr(), TOLERANCE * expected.getCount());
+        assertEquals(expected.getTop1Pct(), actual.getTop1Pct(), TOLERANCE);
+        assertEquals(expected.getTop5Pct(), actual.getTop5Pct(), TOLERANCE);
+        assertEquals(expected.getTop10Pct(), actual.getTop10Pct(), TOLERANCE);
+        assertEquals(expected.getMapPct(), actual.getMapPct(), TOLERANCE);
+        assertEquals(expected.getMrrPct(), actual.getMrrPct(), TOLERANCE);
+    }
+}
@@ -0,0 +1,97 @@
+package edu.vt.cs.evaluation;
+
+import edu.vt.cs.models.Project;
+import edu.vt.cs.ranking.RankingAlgorithm;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResultSinkTest {
+
+    @Test
+    void writesAllBatchesFromConcurrentProducers(@TempDir Path dir) throws IOException {
+        var csvPath = dir.resolve("results.csv");
+        var binPath = dir.resolve("results.bin");
+
+        var batches = IntStream.range(0, 200)
+                .mapToObj(bugId -> Stream.of(RankingAlgorithm.values())
+                        .<EvalResult>map(rankingAlgorithm -> ImmutableEvalResult.of(Project.Lang, bugId,
+                                TriggeringMode.COMPLETE, rankingAlgorithm,
+                                Metrics.fromRanks(List.of(1 + bugId % 7, 20 + rankingAlgorithm.ordinal()))))
+                        .toList())
+                .toList();
+
+        var resultSink = new ResultSink(csvPath, binPath, 2);
+        try (resultSink) {
+            CompletableFuture.allOf(batches.stream()
+                    .map(batch -> CompletableFuture.runAsync(() -> resultSink.accept(batch)))
+                    .toArray(CompletableFuture[]::new)).join();
+        }
+
+        assertEquals(200L * RankingAlgorithm.values().length, resultSink.getCount());
+
+        var csvLines = Files.readAllLines(csvPath);
+        assertEquals(EvalResultsFile.read(binPath).stream().map(EvalResult::getCsvFormat).toList(), csvLines);
+        assertEquals(batches.stream().flatMap(List::stream).map(EvalResult::getCsvFormat).sorted().toList(),
+                csvLines.stream().sorted().toList());
+        assertTrue(Files.getLastModifiedTime(binPath).compareTo(Files.getLastModifiedTime(csvPath)) >= 0);
+    }
+
+    @Test
+    void keepsDrainingAfterAFailedBatch(@TempDir Path dir) throws IOException {
+        var csvPath = dir.resolve("results.csv");
+        var binPath = dir.resolve("results.bin");
+
+        EvalResult broken = new EvalResult() {
+            @Override
+            public Project getProject() {
+                return Project.Lang;
+            }
+
+            @Override
+            public int getBugId() {
+                return 1;
+            }
+
+            @Override
+            public TriggeringMode getTriggeringMode() {
+                return TriggeringMode.COMPLETE;
+            }
+
+            @Override
+            public RankingAlgorithm getRankingAlgorithm() {
+                return RankingAlgorithm.values()[0];
+            }
+
+            @Override
+            public Metrics getMetrics() {
+                throw new IllegalStateException("No metrics");
+            }
+        };
+        var batch = List.<EvalResult>of(ImmutableEvalResult.of(Project.Lang, 2, TriggeringMode.COMPLETE,
+                RankingAlgorithm.values()[0], Metrics.fromRanks(List.of(1))));
+
+        var resultSink = new ResultSink(csvPath, binPath, 1);
+        var failure = assertThrows(IOException.class, () -> {
+            try (resultSink) {
+                resultSink.accept(List.of(broken));
+                for (int i=0; i<10; i++) {
+                    resultSink.accept(batch);
+                }
+            }
+        });
+        assertTrue(failure.getCause() instanceof IllegalStateException);
+        assertEquals(0, resultSink.getCount());
+    }
+}
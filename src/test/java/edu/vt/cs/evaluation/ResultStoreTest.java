@@ -0,0 +1,62 @@
+package edu.vt.cs.evaluation;
+
+import edu.vt.cs.models.BugType;
+import edu.vt.cs.models.Project;
+import edu.vt.cs.ranking.RankingAlgorithm;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ResultStoreTest {
+
+    @Test
+    void reloadsResultsFileOnlyWhenModified(@TempDir Path dir) throws IOException {
+        var csvPath = dir.resolve(BugType.REAL.getCsvResultsFileName());
+        var resultStore = new ResultStore(bugType -> dir);
+
+        Files.write(csvPath, csvLines(3));
+        var lastModified = Files.getLastModifiedTime(csvPath);
+        var all = resultStore.getAll(BugType.REAL);
+        assertEquals(3, all.size());
+        assertSame(all, resultStore.getAll(BugType.REAL));
+
+        Files.write(csvPath, csvLines(5));
+        Files.setLastModifiedTime(csvPath, FileTime.fromMillis(lastModified.toMillis() + TimeUnit.SECONDS.toMillis(1)));
+        assertEquals(5, resultStore.getAll(BugType.REAL).size());
+        assertEquals(5, resultStore.get(BugType.REAL, RankingAlgorithm.DICE, TriggeringMode.COMPLETE).size());
+        assertEquals(5, resultStore.getAggregate(BugType.REAL)
+                .get(RankingAlgorithm.DICE, TriggeringMode.COMPLETE).getCount());
+    }
+
+    @Test
+    void fallsBackToCsvWhenBinaryFileIsUnreadable(@TempDir Path dir) throws IOException {
+        var csvPath = dir.resolve(BugType.REAL.getCsvResultsFileName());
+        var binPath = dir.resolve(BugType.REAL.getBinResultsFileName());
+        Files.write(csvPath, csvLines(3));
+        Files.write(binPath, new byte[] {0x53, 0x42});
+        Files.setLastModifiedTime(binPath, FileTime.fromMillis(Files.getLastModifiedTime(csvPath).toMillis()
+                + TimeUnit.SECONDS.toMillis(1)));
+
+        var resultStore = new ResultStore(bugType -> dir);
+        var all = resultStore.getAll(BugType.REAL);
+        assertEquals(3, all.size());
+        assertSame(all, resultStore.getAll(BugType.REAL));
+    }
+
+    private static List<String> csvLines(int bugs) {
+        return IntStream.rangeClosed(1, bugs)
+                .mapToObj(bugId -> ImmutableEvalResult.of(Project.Lang, bugId, TriggeringMode.COMPLETE,
+                        RankingAlgorithm.DICE, Metrics.fromRanks(List.of(bugId))).getCsvFormat())
+                .toList();
+    }
+}
@@ -0,0 +1,80 @@
+package edu.vt.cs.evaluation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.vt.cs.models.ColumnarSpectrum;
+import edu.vt.cs.models.ImmutableBug;
+import edu.vt.cs.models.Project;
+import edu.vt.cs.models.Spectrum;
+import edu.vt.cs.ranking.Ranker;
+import edu.vt.cs.ranking.RankingAlgorithm;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpectrumFileTest {
+
+    @Test
+    void writeThenReadBack(@TempDir Path dir) throws IOException {
+        // more entities than the writer's buffer holds
+        int n = 20_000;
+        var random = new Random(7);
+        int[] failedTests = new int[n];
+        int[] passedTests = new int[n];
+        List<String> fqns = new ArrayList<>(n);
+        for (int i=0; i<n; i++) {
+            failedTests[i] = random.nextInt(4);
+            passedTests[i] = random.nextInt(50);
+            fqns.add("org.apache.commons.lang3.p" + i % 13 + ".Ü" + i / 13 + "#" + i);
+        }
+        var bug = ImmutableBug.of(Project.Lang, 3,
+                List.of("org/apache/commons/lang3/p5/Ü0.java#5#  code", "x/Y.java#1#missing"));
+        var spectrum = new ColumnarSpectrum(bug, TriggeringMode.SECOND_FAILED_TEST, failedTests, passedTests, 3, 50,
+                fqns);
+        var algorithms = List.of(RankingAlgorithm.values()[0], RankingAlgorithm.values()[1]);
+
+        var ranker = new Ranker();
+        var path = SpectrumFile.spectrumPath(dir, bug, spectrum.getTriggeringMode());
+        List<Spectrum> expected = new ArrayList<>();
+        try (var writer = new SpectrumFile.Writer(path, spectrum)) {
+            for (RankingAlgorithm rankingAlgorithm : algorithms) {
+                expected.add(ranker.rank(rankingAlgorithm, spectrum.toSpectrum()));
+                int[] ranking = ranker.rank(rankingAlgorithm, spectrum);
+                writer.writeSection(SpectrumFile.section(rankingAlgorithm, spectrum, ranking,
+                        ranker.locationRanks(ranking, spectrum)));
+            }
+            assertEquals(Files.size(path), writer.getBytesWritten());
+        }
+        var dictionaryPath = SpectrumFile.dictionaryPath(dir, bug);
+        SpectrumFile.writeDictionary(dictionaryPath, spectrum.getFqns());
+
+        var spectra = SpectrumFile.read(path, SpectrumFile.readDictionary(dictionaryPath));
+        assertEquals(algorithms.size(), spectra.size());
+        for (int i=0; i<algorithms.size(); i++) {
+            var read = spectra.get(i);
+            assertEquals(expected.get(i).getName(), read.getName());
+            assertEquals(bug, read.getBug());
+            assertEquals(3, read.getTotalOfFailedTests());
+            assertEquals(50, read.getTotalOfPassedTests());
+            assertEquals(expected.get(i).getRankedEntitiesList(), read.getRankedEntitiesList());
+            assertEquals(expected.get(i).getLocationRanks(), read.getLocationRanks());
+            assertEquals(expected.get(i).compute(), read.compute());
+        }
+
+        var withoutDictionary = SpectrumFile.read(path, null);
+        assertNull(withoutDictionary.get(1).getRankedEntitiesList());
+        assertEquals(expected.get(1).compute(), withoutDictionary.get(1).compute());
+
+        long jsonSize = new ObjectMapper().writeValueAsString(expected.get(0)).length();
+        assertTrue(Files.size(path) + Files.size(dictionaryPath) < jsonSize, "binary file is larger than one JSON file");
+    }
+}
@@ -0,0 +1,33 @@
+package edu.vt.cs.models;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FqnTableTest {
+
+    @Test
+    void mappedTableMatchesLinesAndLocatesById(@TempDir Path dir) throws IOException {
+        var path = dir.resolve("spectra");
+        Files.writeString(path, "a.B#1\r\na.B#2\nb.Ü#7\na.B#2\n\nc.D#10");
+
+        var table = FqnTable.map(path);
+        assertEquals(Files.readAllLines(path), table);
+
+        var locations = ImmutableBug.of(Project.Lang, 1,
+                List.of("a/B.java#2#  code", "b/Ü.java#7#x", "x/Y.java#1#", "c/D.java#10#")).getLocationFqns();
+        var expected = new int[][] {{1, 3}, {2}, {}, {5}};
+        assertArrayEquals(expected, table.locate(locations));
+        assertArrayEquals(expected, FqnTable.of(Files.readAllLines(path)).locate(locations));
+
+        assertEquals(table, FqnTable.of(table.toBytes()));
+        assertEquals(table, FqnTable.of(FqnTable.of(List.copyOf(table)).toBytes()));
+    }
+}
@@ -1,11 +1,28 @@
 package edu.vt.cs.ranking;
 
+import edu.vt.cs.evaluation.Metrics;
+import edu.vt.cs.evaluation.TriggeringMode;
+import edu.vt.cs.models.ColumnarSpectrum;
+import edu.vt.cs.models.ImmutableBug;
+import edu.vt.cs.models.ImmutableEntity;
+import edu.vt.cs.models.ImmutableSpectrum;
 import edu.vt.cs.models.Project;
+import edu.vt.cs.models.Spectrum;
 import edu.vt.cs.utils.BugParser;
 import edu.vt.cs.utils.CoverageParser;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 import java.io.IOException;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -27,4 +44,79 @@ class RankerTest {
 
         rankedList.stream().limit(10).forEach(System.out::println);
     }
+
+    @ParameterizedTest
+    @EnumSource(RankingAlgorithm.class)
+    void rankMatchesEntityByEntitySort(RankingAlgorithm rankingAlgorithm) {
+        var spectrum = randomSpectrum(new Random(rankingAlgorithm.ordinal()), 500);
+
+        var expected = spectrum.getEntities().stream()
+                .map(entity -> ImmutableEntity.copyOf(entity)
+                        .withScore(SpVector.from(entity, spectrum).toScore(rankingAlgorithm)))
+                .sorted(Comparator.comparingDouble(ImmutableEntity::getScore).reversed())
+                .collect(Collectors.toList());
+
+        assertEquals(expected, new Ranker().rank(rankingAlgorithm, spectrum).getRankedEntitiesList());
+    }
+
+    @Test
+    void rankAllMatchesRankingEachAlgorithm() {
+        var random = new Random(7);
+        var ranker = new Ranker();
+
+        for (int size : new int[] {0, 1, 40, 700}) {
+            var spectrum = randomSpectrum(random, size);
+            var expected = Stream.of(RankingAlgorithm.values())
+                    .map(rankingAlgorithm -> ranker.rank(rankingAlgorithm, spectrum))
+                    .collect(Collectors.toList());
+
+            assertEquals(expected, ranker.rankAll(spectrum));
+        }
+    }
+
+    @Test
+    void sharedClassRankingsMatchSortingEachAlgorithm() {
+        var spectrum = ColumnarSpectrum.from(randomSpectrum(new Random(11), 700));
+        var ranker = new Ranker();
+        Map<RankingAlgorithm, int[]> classRankings = new EnumMap<>(RankingAlgorithm.class);
+
+        for (RankingAlgorithm rankingAlgorithm : RankingAlgorithm.values()) {
+            int[] shared = ranker.rank(rankingAlgorithm, spectrum, classRankings).clone();
+            assertArrayEquals(ranker.rank(rankingAlgorithm, spectrum), shared, rankingAlgorithm.name());
+        }
+        assertFalse(classRankings.isEmpty());
+    }
+
+    @ParameterizedTest
+    @EnumSource(RankingAlgorithm.class)
+    void partialRankMatchesFullRank(RankingAlgorithm rankingAlgorithm) {
+        var random = new Random(100 + rankingAlgorithm.ordinal());
+        var spectrum = ImmutableSpectrum.copyOf(randomSpectrum(random, 300))
+                .withBug(ImmutableBug.of(Project.Lang, 1, List.of(
+                        "a/B.java#7#  code", "a/B.java#42#FAULT_OF_OMISSION", "a/B.java#299#", "a/C.java#1#")));
+        var ranker = new Ranker();
+
+        var full = ranker.rank(rankingAlgorithm, spectrum);
+        var partial = ranker.rank(rankingAlgorithm, spectrum, 10);
+
+        assertEquals(full.compute(), partial.compute());
+        assertEquals(full.compute(), Metrics.fromRanks(ranker.rankLocations(rankingAlgorithm, ColumnarSpectrum.from(spectrum))));
+        assertEquals(full.getRankedEntitiesList().subList(0, 10), partial.getRankedEntitiesList());
+        assertEquals(List.of(), ranker.rank(rankingAlgorithm, spectrum, 0).getRankedEntitiesList());
+    }
+
+    /**
+     * A spectrum with small counts, so that many entities tie and some formulas divide by zero
+     */
+    static Spectrum randomSpectrum(Random random, int size) {
+        int totalFailed = 1 + random.nextInt(4);
+        int totalPassed = random.nextInt(30);
+        int[] failed = IntStream.range(0, size).map(i -> random.nextInt(totalFailed + 1)).toArray();
+        int[] passed = IntStream.range(0, size).map(i -> random.nextInt(totalPassed + 1)).toArray();
+        var fqns = IntStream.range(0, size).mapToObj(i -> "a.B#m():" + i).toList();
+        var bug = ImmutableBug.of(Project.Lang, 1, List.of("a/B.java#1"));
+
+        return new ColumnarSpectrum(bug, TriggeringMode.COMPLETE, failed, passed, totalFailed, totalPassed, fqns)
+                .toSpectrum();
+    }
 }
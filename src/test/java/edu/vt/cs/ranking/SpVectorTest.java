@@ -0,0 +1,40 @@
+package edu.vt.cs.ranking;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpVectorTest {
+
+    @ParameterizedTest
+    @EnumSource(RankingAlgorithm.class)
+    void vectorizedScoresAreIdenticalToScalarScores(RankingAlgorithm rankingAlgorithm) {
+        assertTrue(SpVector.VECTORIZED, "tests are expected to run with jdk.incubator.vector");
+
+        var random = new Random(rankingAlgorithm.ordinal());
+        int n = 1003;
+
+        for (int[] totals : new int[][] {{0, 0}, {1, 0}, {0, 7}, {3, 40}, {12, 5000}}) {
+            int nf = totals[0];
+            int np = totals[1];
+            int[] ef = IntStream.range(0, n).map(i -> random.nextInt(nf + 1)).toArray();
+            int[] ep = IntStream.range(0, n).map(i -> random.nextInt(np + 1)).toArray();
+
+            double[] expected = new double[n];
+            double[] actual = new double[n];
+            SpVector.toScoresScalar(rankingAlgorithm, ef, ep, nf, np, expected, n);
+            SpVector.toScores(rankingAlgorithm, ef, ep, nf, np, actual, n);
+
+            for (int i=0; i<n; i++) {
+                assertEquals(Double.doubleToRawLongBits(expected[i]), Double.doubleToRawLongBits(actual[i]),
+                        rankingAlgorithm + " differs at ef = " + ef[i] + ", ep = " + ep[i] + ", nf = " + nf
+                                + ", np = " + np + ": " + expected[i] + " vs " + actual[i]);
+            }
+        }
+    }
+}
@@ -1,15 +1,27 @@
 package edu.vt.cs.utils;
 
+import edu.vt.cs.evaluation.TriggeringMode;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
 import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.stream.Stream;
 
 import static edu.vt.cs.models.Constants.dest;
 import static edu.vt.cs.models.Constants.src;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 
 class CoverageDataReaderTest {
@@ -24,4 +36,32 @@ class CoverageDataReaderTest {
     static Stream<Arguments> defaultSourceDestProvider() {
         return Stream.of(arguments(src, dest, 1));
     }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void readColumnarStreamsArchiveEntries(boolean spectraFirst, @TempDir Path dir) throws IOException {
+        var bug = CoverageParserTest.writeSmallBug(dir.resolve("gzoltars"));
+        var gzoltarsPath = dir.resolve("gzoltars").toString();
+        var files = ContentHash.coverageFiles(bug, gzoltarsPath);
+
+        var archivePath = dir.resolve("gzoltar-files.tar.gz");
+        try (var out = new TarArchiveOutputStream(new GzipCompressorOutputStream(Files.newOutputStream(archivePath)))) {
+            for (Path file : spectraFirst ? List.of(files.get(1), files.get(0)) : files) {
+                var entry = new TarArchiveEntry(file.toFile(), "gzoltars/Lang/1/" + file.getFileName());
+                out.putArchiveEntry(entry);
+                Files.copy(file, out);
+                out.closeArchiveEntry();
+            }
+        }
+
+        var modes = EnumSet.allOf(TriggeringMode.class);
+        var expected = CoverageParser.readColumnar(bug, modes, gzoltarsPath);
+        var streamed = CoverageDataReader.readColumnar(bug, modes, archivePath);
+
+        for (TriggeringMode triggeringMode : modes) {
+            assertArrayEquals(expected.get(triggeringMode).getFailedTests(), streamed.get(triggeringMode).getFailedTests());
+            assertArrayEquals(expected.get(triggeringMode).getPassedTests(), streamed.get(triggeringMode).getPassedTests());
+            assertEquals(expected.get(triggeringMode).getFqns(), streamed.get(triggeringMode).getFqns());
+        }
+    }
 }
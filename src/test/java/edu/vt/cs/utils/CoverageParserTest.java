@@ -1,12 +1,28 @@
 package edu.vt.cs.utils;
 
+import edu.vt.cs.evaluation.TriggeringMode;
+import edu.vt.cs.models.Bug;
+import edu.vt.cs.models.CoverageMatrix;
+import edu.vt.cs.models.Entity;
+import edu.vt.cs.models.ImmutableBug;
 import edu.vt.cs.models.Project;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import static edu.vt.cs.models.Constants.MATRIX_FILE_NAME;
+import static edu.vt.cs.models.Constants.SPECTRA_FILE_NAME;
 import static edu.vt.cs.utils.BugParser.isRealBugFromDefect4JProjects;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class CoverageParserTest {
     @Test
@@ -22,4 +38,139 @@ class CoverageParserTest {
         assertEquals(3, spectrum.getTotalOfFailedTests());
         assertEquals(5984, spectrum.getTotalOfPassedTests());
     }
+
+    @Test
+    void parseSmallMatrix(@TempDir Path gzoltarsDir) throws IOException {
+        var bug = writeBug(gzoltarsDir, List.of(
+                "1 0 1 +",
+                "1 1 0 -",
+                "0 1 1 +",
+                "1 1 1 -"));
+
+        var complete = CoverageParser.parse(bug, TriggeringMode.COMPLETE, gzoltarsDir.toString());
+        assertEquals(2, complete.getTotalOfFailedTests());
+        assertEquals(2, complete.getTotalOfPassedTests());
+        assertEquals(List.of(2, 2, 1), complete.getEntities().stream().map(Entity::getNumberOfFailedTests).toList());
+        assertEquals(List.of(1, 1, 2), complete.getEntities().stream().map(Entity::getNumberOfPassedTests).toList());
+        assertEquals("a.B#m():1", complete.getEntities().iterator().next().getFQN());
+
+        var firstFailed = CoverageParser.parse(bug, TriggeringMode.FIRST_FAILED_TEST, gzoltarsDir.toString());
+        assertEquals(1, firstFailed.getTotalOfFailedTests());
+        assertEquals(1, firstFailed.getTotalOfPassedTests());
+        assertEquals(List.of(1, 1, 0), firstFailed.getEntities().stream().map(Entity::getNumberOfFailedTests).toList());
+
+        assertTrue(CoverageParser.parse(bug, TriggeringMode.THIRD_FAILED_TEST, gzoltarsDir.toString()).getIsEmpty());
+        assertTrue(CoverageParser.parse(bug, TriggeringMode.EXTRA_PASSED_TESTS_3, gzoltarsDir.toString()).getIsEmpty());
+        assertEquals(4, CoverageParser.getTestCount(bug, TriggeringMode.EXTRA_PASSED_TESTS_2, gzoltarsDir.toString()));
+    }
+
+    @Test
+    void parseAllModesMatchesBitPackedMatrix(@TempDir Path gzoltarsDir) throws IOException {
+        var random = new Random(3);
+        int numberOfLocations = 40;
+        var matrixLines = IntStream.range(0, 120)
+                .mapToObj(test -> IntStream.range(0, numberOfLocations)
+                        .mapToObj(location -> random.nextInt(3) == 0 ? "1" : "0")
+                        .collect(Collectors.joining(" ")) + (random.nextInt(8) == 0 ? " -" : " +"))
+                .toList();
+        var bug = writeBug(gzoltarsDir, matrixLines, IntStream.range(0, numberOfLocations)
+                .mapToObj(location -> "a.B#m():" + location)
+                .toList());
+
+        var allModes = CoverageParser.parseAllModes(bug, gzoltarsDir.toString());
+        var matrix = CoverageParser.readCoverageMatrix(matrixPath(gzoltarsDir, bug));
+
+        assertEquals(List.of(TriggeringMode.values()), List.copyOf(allModes.keySet()));
+        for (TriggeringMode triggeringMode : TriggeringMode.values()) {
+            var expected = countsOf(matrix, triggeringMode);
+            var spectrum = allModes.get(triggeringMode);
+            if (expected.failedTests().length == 0) {
+                assertTrue(spectrum.getIsEmpty(), triggeringMode.name());
+                continue;
+            }
+            assertArrayEquals(expected.failedTests(), spectrum.getEntities().stream()
+                    .mapToInt(Entity::getNumberOfFailedTests).toArray(), triggeringMode.name());
+            assertArrayEquals(expected.passedTests(), spectrum.getEntities().stream()
+                    .mapToInt(Entity::getNumberOfPassedTests).toArray(), triggeringMode.name());
+            assertEquals(expected.totalOfFailedTests(), spectrum.getTotalOfFailedTests(), triggeringMode.name());
+            assertEquals(expected.totalOfPassedTests(), spectrum.getTotalOfPassedTests(), triggeringMode.name());
+        }
+    }
+
+    @Test
+    void bitPackedMatrixCountsEachModePrefix(@TempDir Path gzoltarsDir) throws IOException {
+        var bug = writeBug(gzoltarsDir, List.of(
+                "1 0 1 +",
+                "1 1 0 -",
+                "0 1 1 +",
+                "1 1 1 -"));
+        var matrix = CoverageParser.readCoverageMatrix(matrixPath(gzoltarsDir, bug));
+        assertEquals(4, matrix.getNumberOfTests());
+        assertEquals(3, matrix.getNumberOfLocations());
+        assertEquals(2, matrix.getNumberOfFailedTests());
+
+        var complete = countsOf(matrix, TriggeringMode.COMPLETE);
+        assertArrayEquals(new int[] {2, 2, 1}, complete.failedTests());
+        assertArrayEquals(new int[] {1, 1, 2}, complete.passedTests());
+        assertEquals(2, complete.totalOfFailedTests());
+        assertEquals(2, complete.totalOfPassedTests());
+
+        var firstFailed = countsOf(matrix, TriggeringMode.FIRST_FAILED_TEST);
+        assertArrayEquals(new int[] {1, 1, 0}, firstFailed.failedTests());
+        assertArrayEquals(new int[] {1, 0, 1}, firstFailed.passedTests());
+        assertEquals(1, firstFailed.totalOfFailedTests());
+        assertEquals(1, firstFailed.totalOfPassedTests());
+
+        assertEquals(0, countsOf(matrix, TriggeringMode.THIRD_FAILED_TEST).failedTests().length);
+    }
+
+    /**
+     * Failed/passed test counts of each location over a mode's prefix of the bit-packed matrix, computed apart from
+     * the streaming parser so that it can serve as its oracle; no counts if the prefix is empty
+     */
+    static Counts countsOf(CoverageMatrix matrix, TriggeringMode triggeringMode) {
+        var tests = triggeringMode.getSubSetFn().apply(matrix);
+        if (tests.isEmpty()) {
+            return new Counts(new int[0], new int[0], 0, 0);
+        }
+        int[] failedTests = new int[tests.getNumberOfLocations()];
+        int[] passedTests = new int[tests.getNumberOfLocations()];
+        for (int test=0; test<tests.getNumberOfTests(); test++) {
+            var counts = tests.isFailed(test) ? failedTests : passedTests;
+            tests.forEachCoveredLocation(test, location -> counts[location]++);
+        }
+        return new Counts(failedTests, passedTests, tests.getNumberOfFailedTests(), tests.getNumberOfPassedTests());
+    }
+
+    record Counts(int[] failedTests, int[] passedTests, int totalOfFailedTests, int totalOfPassedTests) {
+    }
+
+    static Path matrixPath(Path gzoltarsDir, Bug bug) {
+        return gzoltarsDir.resolve(bug.getProject().name()).resolve(String.valueOf(bug.getBugId()))
+                .resolve(MATRIX_FILE_NAME);
+    }
+
+    /**
+     * Write a bug with two failed and two passed tests over the three locations of {@link #writeBug(Path, List)}
+     */
+    static Bug writeSmallBug(Path gzoltarsDir) throws IOException {
+        return writeBug(gzoltarsDir, List.of(
+                "1 0 1 +",
+                "0 1 1 -",
+                "1 1 0 +",
+                "1 0 0 -"));
+    }
+
+    static Bug writeBug(Path gzoltarsDir, List<String> matrixLines) throws IOException {
+        return writeBug(gzoltarsDir, matrixLines, List.of("a.B#m():1", "a.B#m():2", "a.C#n():7"));
+    }
+
+    static Bug writeBug(Path gzoltarsDir, List<String> matrixLines, List<String> fqns) throws IOException {
+        var bug = ImmutableBug.of(Project.Lang, 1, List.of("a/B.java#1"));
+        var bugDir = Files.createDirectories(gzoltarsDir.resolve(bug.getProject().name())
+                .resolve(String.valueOf(bug.getBugId())));
+        Files.write(bugDir.resolve(MATRIX_FILE_NAME), matrixLines);
+        Files.write(bugDir.resolve(SPECTRA_FILE_NAME), fqns);
+        return bug;
+    }
 }
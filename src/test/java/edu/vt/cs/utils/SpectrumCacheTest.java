@@ -0,0 +1,59 @@
+package edu.vt.cs.utils;
+
+import edu.vt.cs.evaluation.TriggeringMode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpectrumCacheTest {
+
+    @Test
+    void cachedSpectraMatchParsedSpectra(@TempDir Path dir) throws IOException {
+        var bug = CoverageParserTest.writeSmallBug(dir.resolve("gzoltars"));
+        var gzoltarsPath = dir.resolve("gzoltars").toString();
+        var files = ContentHash.coverageFiles(bug, gzoltarsPath);
+
+        var hash = ContentHash.sha256(files);
+        var cache = new SpectrumCache(dir.resolve("cache"));
+        var bytesParsed = new LongAdder();
+        var parsed = cache.parseColumnar(bug, hash, gzoltarsPath, bytesParsed::add);
+        assertEquals(Files.size(files.get(0)) + Files.size(files.get(1)), bytesParsed.sum());
+        assertTrue(Files.exists(dir.resolve("cache").resolve(hash + ".spectra")));
+
+        // the cached entry is used even once the coverage files are gone
+        Files.delete(files.get(0));
+        bytesParsed.reset();
+        var cached = cache.parseColumnar(bug, hash, gzoltarsPath, bytesParsed::add);
+        assertEquals(0, bytesParsed.sum());
+
+        var withoutCache = CoverageParser.parseColumnar(bug, EnumSet.allOf(TriggeringMode.class), gzoltarsPath);
+        assertEquals(parsed.keySet(), cached.keySet());
+        for (TriggeringMode triggeringMode : TriggeringMode.values()) {
+            var spectrum = parsed.get(triggeringMode);
+            var cachedSpectrum = cached.get(triggeringMode);
+            assertEquals(spectrum.size(), cachedSpectrum.size());
+            assertArrayEquals(spectrum.getFailedTests(), cachedSpectrum.getFailedTests());
+            assertArrayEquals(spectrum.getPassedTests(), cachedSpectrum.getPassedTests());
+            assertEquals(spectrum.getTotalOfFailedTests(), cachedSpectrum.getTotalOfFailedTests());
+            assertEquals(spectrum.getTotalOfPassedTests(), cachedSpectrum.getTotalOfPassedTests());
+            assertEquals(spectrum.getFqns(), cachedSpectrum.getFqns());
+        }
+        assertTrue(withoutCache.values().stream().allMatch(spectrum -> spectrum.isEmpty()));
+
+        // a failure to parse is reported, not cached
+        assertThrows(IOException.class, () -> cache.parseColumnar(bug, "unparsable", gzoltarsPath, bytesParsed::add));
+        assertFalse(Files.exists(dir.resolve("cache").resolve("unparsable.spectra")));
+        assertEquals(0, bytesParsed.sum());
+    }
+}
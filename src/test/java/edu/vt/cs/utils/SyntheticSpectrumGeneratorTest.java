@@ -0,0 +1,38 @@
+package edu.vt.cs.utils;
+
+import edu.vt.cs.evaluation.TriggeringMode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SyntheticSpectrumGeneratorTest {
+
+    @Test
+    void generatedBugsParseIntoSpectraContainingTheirFaults(@TempDir Path dir) throws IOException {
+        var generator = new SyntheticSpectrumGenerator(200, 3000, 0.05, 0.05, 3, 7);
+        var gzoltarsDir = dir.resolve("gzoltars");
+        var bugsJsonPath = dir.resolve("bugs.json");
+
+        var bugs = generator.generate(4, gzoltarsDir, bugsJsonPath);
+        assertEquals(bugs, BugParser.derBugs(bugsJsonPath.toString()));
+
+        for (var bug : bugs) {
+            var spectrum = CoverageParser.readColumnar(bug, EnumSet.of(TriggeringMode.COMPLETE), gzoltarsDir.toString())
+                    .get(TriggeringMode.COMPLETE);
+            assertEquals(3000, spectrum.size());
+            assertEquals(200, spectrum.getTotalOfFailedTests() + spectrum.getTotalOfPassedTests());
+            assertTrue(spectrum.getTotalOfFailedTests() > 0);
+
+            // every fault is in the spectra file, and failing tests cover the faults
+            assertTrue(Stream.of(spectrum.getLocationIds()).allMatch(ids -> ids.length == 1));
+            assertTrue(Stream.of(spectrum.getLocationIds()).anyMatch(ids -> spectrum.getFailedTests()[ids[0]] > 0));
+        }
+    }
+}
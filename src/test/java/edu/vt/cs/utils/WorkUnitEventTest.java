@@ -0,0 +1,69 @@
+package edu.vt.cs.utils;
+
+import edu.vt.cs.evaluation.TriggeringMode;
+import edu.vt.cs.ranking.Ranker;
+import edu.vt.cs.ranking.RankingAlgorithm;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class WorkUnitEventTest {
+
+    @Test
+    void workUnitsAreRecorded(@TempDir Path dir) throws IOException {
+        var bug = CoverageParserTest.writeSmallBug(dir.resolve("gzoltars"));
+        var gzoltarsPath = dir.resolve("gzoltars").toString();
+
+        var recordingPath = dir.resolve("events.jfr");
+        try (var recording = new Recording()) {
+            recording.enable(ParseEvent.class);
+            recording.enable(RankEvent.class);
+            recording.enable(ComputeEvent.class);
+            recording.start();
+
+            var spectrum = CoverageParser.readColumnar(bug, EnumSet.of(TriggeringMode.COMPLETE), gzoltarsPath)
+                    .get(TriggeringMode.COMPLETE);
+            var ranker = new Ranker();
+            ranker.rankLocations(RankingAlgorithm.values()[0], spectrum);
+            ranker.rank(RankingAlgorithm.values()[1], spectrum.toSpectrum()).compute();
+
+            recording.stop();
+            recording.dump(recordingPath);
+        }
+
+        Map<String, List<RecordedEvent>> events = RecordingFile.readAllEvents(recordingPath).stream()
+                .filter(event -> event.getEventType().getName().startsWith("edu.vt.cs."))
+                .collect(Collectors.groupingBy(event -> event.getEventType().getName()));
+
+        var parse = events.get("edu.vt.cs.Parse").get(0);
+        assertEquals("Lang", parse.getString("project"));
+        assertEquals(1, parse.getInt("bugId"));
+        assertEquals(TriggeringMode.COMPLETE.name(), parse.getString("triggeringMode"));
+        assertNull(parse.getString("rankingAlgorithm"));
+        assertEquals(3, parse.getInt("entityCount"));
+        assertEquals(4, parse.getInt("testCount"));
+
+        var ranks = events.get("edu.vt.cs.Rank");
+        assertEquals(2, ranks.size());
+        assertEquals(Set.of(RankingAlgorithm.values()[0].name(), RankingAlgorithm.values()[1].name()),
+                ranks.stream().map(event -> event.getString("rankingAlgorithm")).collect(Collectors.toSet()));
+
+        var compute = events.get("edu.vt.cs.Compute").get(0);
+        assertEquals(RankingAlgorithm.values()[1].name(), compute.getString("rankingAlgorithm"));
+        assertEquals(3, compute.getInt("entityCount"));
+        assertEquals(4, compute.getInt("testCount"));
+    }
+}